@@ -0,0 +1,95 @@
+package com.example.mockservice.benchmark;
+
+import com.example.mockservice.catalog.MockCatalogService;
+import com.example.mockservice.domain.ServiceOperation;
+import com.example.mockservice.repository.MockConfigurationRepository;
+import com.example.mockservice.repository.MockRuleRepository;
+import com.example.mockservice.repository.ServiceOperationRepository;
+import com.example.mockservice.service.MockExecutionService;
+import com.example.mockservice.service.MockMetrics;
+import com.example.mockservice.service.MockRequest;
+import com.example.mockservice.service.RequestLogWriter;
+import com.example.mockservice.service.ResponseCache;
+import com.example.mockservice.util.RandomDataGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * End-to-end {@link MockExecutionService#executeMock(MockRequest)} over a
+ * synthetic catalog. The request log writer is not started, so logging costs
+ * only the hand-off to its buffer (events are dropped once it is full).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ExecuteMockBenchmark {
+
+    private static final int RULES = 10;
+
+    @Param({ "10", "1000", "10000" })
+    public int operations;
+
+    private MockExecutionService service;
+    private String getPath;
+    private String postPath;
+    private byte[] postBody;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<ServiceOperation> ops = SyntheticCatalog.operations(operations);
+        ServiceOperation lastGet = ops.get(ops.size() - 2);
+        ServiceOperation lastPost = ops.get(ops.size() - 1);
+
+        ServiceOperationRepository operationRepository = mock(ServiceOperationRepository.class);
+        MockRuleRepository ruleRepository = mock(MockRuleRepository.class);
+        MockConfigurationRepository configurationRepository = mock(MockConfigurationRepository.class);
+        when(operationRepository.findAllForCatalog()).thenReturn(ops);
+        when(ruleRepository.findAllByOrderByPriorityAsc()).thenReturn(java.util.stream.Stream
+                .concat(SyntheticCatalog.rules(lastGet, RULES, "42").stream(),
+                        SyntheticCatalog.rules(lastPost, RULES, "42").stream())
+                .toList());
+
+        MockCatalogService catalogService = new MockCatalogService(operationRepository, ruleRepository,
+                configurationRepository, objectMapper);
+        catalogService.refresh();
+
+        RequestLogWriter writer = new RequestLogWriter(new JdbcTemplate(), new SimpleMeterRegistry(), 1024, 256,
+                50, RequestLogWriter.OverflowPolicy.DROP, 2, 0, 65536, RequestLogWriter.BodyOverflow.TRUNCATE);
+        service = new MockExecutionService(operationRepository, ruleRepository, writer, new RandomDataGenerator(),
+                objectMapper, catalogService, new MockMetrics(new SimpleMeterRegistry(), true, 1000),
+                new ResponseCache(new SimpleMeterRegistry(), false, 0, java.time.Duration.ZERO));
+
+        getPath = SyntheticCatalog.lastPath(operations);
+        postPath = lastPost.getUrl();
+        postBody = "{\"id\":\"42\",\"name\":\"Mock\",\"tags\":[\"a\",\"b\"]}".getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Operation without rules: route lookup and the pre-serialized default body. */
+    @Benchmark
+    public ResponseEntity<Object> defaultBody() {
+        return service.executeMock(new MockRequest("GET", SyntheticCatalog.lastPath(1), null, null, Map.of()));
+    }
+
+    /** Rules matched against the path variable; the last rule matches. */
+    @Benchmark
+    public ResponseEntity<Object> pathVariableRule() {
+        return service.executeMock(new MockRequest("GET", getPath, null, null, Map.of()));
+    }
+
+    /** Rules matched against a parsed JSON body; the last rule matches. */
+    @Benchmark
+    public ResponseEntity<Object> bodyRule() {
+        return service.executeMock(new MockRequest("POST", postPath, postBody, StandardCharsets.UTF_8, Map.of()));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.mockservice.benchmark;
+
+import com.example.mockservice.util.PathMatcher;
+import com.example.mockservice.util.PathTrie;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Route resolution: the per-operation regex scan that {@link PathMatcher}
+ * supports against the {@link PathTrie} the catalog uses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class PathMatchingBenchmark {
+
+    @Param({ "10", "100", "1000", "10000" })
+    public int operations;
+
+    private List<PathMatcher.PathPattern> patterns;
+    private PathTrie<String> trie;
+    private String path;
+
+    @Setup
+    public void setUp() {
+        patterns = new ArrayList<>(operations);
+        trie = new PathTrie<>();
+        for (int i = 0; i < operations; i++) {
+            patterns.add(new PathMatcher.PathPattern(SyntheticCatalog.template(i)));
+            trie.insert(SyntheticCatalog.template(i), "op-" + i);
+        }
+        path = SyntheticCatalog.lastPath(operations);
+    }
+
+    @Benchmark
+    public Map<String, String> regexScan() {
+        for (PathMatcher.PathPattern pattern : patterns) {
+            PathMatcher.PathMatchResult result = pattern.match(path);
+            if (result.isMatched()) {
+                return result.getPathVariables();
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Map<String, String> trieFindAndExtract() {
+        PathTrie.Match<String> match = trie.find(path);
+        return match.variables(match.getRoutes().get(0)).toMap();
+    }
+
+    /** Static helper used before patterns were cached: compiles on every call. */
+    @Benchmark
+    public Map<String, String> extractUncompiled() {
+        return PathMatcher.extractPathVariables(SyntheticCatalog.template(operations - 1), path);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.mockservice.benchmark;
+
+import com.example.mockservice.util.OutputSchema;
+import com.example.mockservice.util.RandomDataGenerator;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.JsonNode;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random response generation from an operation's output parameters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class RandomDataBenchmark {
+
+    @Param({ "5", "50" })
+    public int fields;
+
+    private final RandomDataGenerator generator = new RandomDataGenerator();
+    private String outputParameters;
+    private OutputSchema schema;
+
+    @Setup
+    public void setUp() {
+        String[] types = { "string", "integer", "boolean", "date", "other" };
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < fields; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"name\":\"field").append(i).append("\",\"type\":\"").append(types[i % types.length])
+                    .append("\"}");
+        }
+        outputParameters = json.append(']').toString();
+        schema = generator.compile(outputParameters);
+    }
+
+    /** Sync-time path: compile the schema and build a tree. */
+    @Benchmark
+    public JsonNode generateReflectedOutput() {
+        return generator.generateReflectedOutput(outputParameters);
+    }
+
+    /** Per-request path: stream a precompiled schema to bytes. */
+    @Benchmark
+    public byte[] generateCompiled() {
+        return generator.generate(schema);
+    }
+}
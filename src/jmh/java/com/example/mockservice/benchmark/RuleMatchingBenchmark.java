@@ -0,0 +1,55 @@
+package com.example.mockservice.benchmark;
+
+import com.example.mockservice.catalog.CompiledRule;
+import com.example.mockservice.catalog.RuleIndex;
+import com.example.mockservice.domain.MockRule;
+import com.example.mockservice.domain.ServiceOperation;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rule evaluation for one request where only the last rule matches, scanned
+ * linearly and through the {@link RuleIndex}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class RuleMatchingBenchmark {
+
+    @Param({ "1", "10", "100", "1000" })
+    public int rules;
+
+    private List<CompiledRule> compiled;
+    private RuleIndex index;
+    private JsonNode requestData;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ServiceOperation op = new ServiceOperation();
+        op.setId("op");
+        List<MockRule> mockRules = SyntheticCatalog.rules(op, rules, "42");
+        compiled = mockRules.stream().map(rule -> CompiledRule.of(rule, objectMapper)).toList();
+        index = RuleIndex.of(compiled);
+        requestData = objectMapper.readTree("{\"id\":\"42\",\"name\":\"Mock\",\"age\":30}");
+    }
+
+    @Benchmark
+    public CompiledRule firstMatch() {
+        for (CompiledRule rule : compiled) {
+            if (rule.isValid() && rule.condition().matches(requestData)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public CompiledRule indexedMatch() {
+        return index.match(requestData);
+    }
+}
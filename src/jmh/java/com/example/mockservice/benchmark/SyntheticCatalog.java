@@ -0,0 +1,84 @@
+package com.example.mockservice.benchmark;
+
+import com.example.mockservice.domain.MockRule;
+import com.example.mockservice.domain.ServiceDefinition;
+import com.example.mockservice.domain.ServiceOperation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic Flowable-like catalog: ten operations per service, each a GET
+ * with a path variable and a POST on the collection url.
+ */
+final class SyntheticCatalog {
+
+    static final String OUTPUT_PARAMETERS = "[{\"name\":\"id\",\"type\":\"string\"},"
+            + "{\"name\":\"name\",\"type\":\"string\"},{\"name\":\"age\",\"type\":\"integer\"},"
+            + "{\"name\":\"active\",\"type\":\"boolean\"},{\"name\":\"since\",\"type\":\"date\"}]";
+
+    private SyntheticCatalog() {
+    }
+
+    static String template(int i) {
+        return "/svc" + (i / 10) + "/api/resource" + i + "/${id}";
+    }
+
+    static String collection(int i) {
+        return "/svc" + (i / 10) + "/api/resource" + i;
+    }
+
+    /** Path served by the last operation, the worst case for a linear scan. */
+    static String lastPath(int operations) {
+        return "/svc" + ((operations - 1) / 10) + "/api/resource" + (operations - 1) + "/42";
+    }
+
+    static List<ServiceOperation> operations(int count) {
+        List<ServiceOperation> operations = new ArrayList<>(count * 2);
+        ServiceDefinition service = null;
+        for (int i = 0; i < count; i++) {
+            if (i % 10 == 0) {
+                service = new ServiceDefinition();
+                service.setId("svc-" + (i / 10));
+                service.setKey("svc" + (i / 10));
+                service.setName("Service " + (i / 10));
+            }
+            operations.add(operation("get-" + i, "GET", template(i), service));
+            operations.add(operation("post-" + i, "POST", collection(i), service));
+        }
+        return operations;
+    }
+
+    /**
+     * Rules on the given operation keyed on "id"; only the last one matches
+     * {@code matchingId}.
+     */
+    static List<MockRule> rules(ServiceOperation operation, int count, String matchingId) {
+        List<MockRule> rules = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MockRule rule = new MockRule();
+            rule.setId(operation.getId() + "-rule-" + i);
+            rule.setServiceOperation(operation);
+            rule.setPriority(i);
+            String id = i == count - 1 ? matchingId : "miss-" + i;
+            rule.setConditions("{\"id\":\"" + id + "\"}");
+            rule.setResponseStatus(404);
+            rule.setResponseBody("{\"error\":\"not found\"}");
+            rules.add(rule);
+        }
+        return rules;
+    }
+
+    private static ServiceOperation operation(String id, String method, String url, ServiceDefinition service) {
+        ServiceOperation op = new ServiceOperation();
+        op.setId(id);
+        op.setKey(id);
+        op.setName("Operation " + id);
+        op.setMethod(method);
+        op.setUrl(url);
+        op.setOutputParametersJson(OUTPUT_PARAMETERS);
+        op.setDefaultResponseBody("{\"id\":\"Mock-1\",\"name\":\"Data-2\",\"age\":42,\"active\":true}");
+        op.setServiceDefinition(service);
+        return op;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.mockservice.catalog;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A static response body serialized once to UTF-8 bytes, with its
+ * Content-Length and ETag precomputed. Lives in the {@link MockCatalog} and is
+ * rebuilt together with it whenever the owning entity changes.
+ */
+public final class CachedBody {
+
+    private final byte[] bytes;
+    private final String text;
+    private final MediaType contentType;
+    private final String etag;
+
+    private CachedBody(byte[] bytes, String text, MediaType contentType) {
+        this(bytes, text, contentType, "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"");
+    }
+
+    private CachedBody(byte[] bytes, String text, MediaType contentType, String etag) {
+        this.bytes = bytes;
+        this.text = text;
+        this.contentType = contentType;
+        this.etag = etag;
+    }
+
+    /**
+     * Caches a configured body. JSON is normalized to its compact form, anything
+     * else is served verbatim as text/plain.
+     *
+     * @return the cached body, or null if there is no body
+     */
+    public static CachedBody of(String body, String contentType, ObjectMapper objectMapper) {
+        if (body == null || body.isEmpty()) {
+            return null;
+        }
+        CachedBody json = json(body, contentType, objectMapper);
+        if (json != null) {
+            return json;
+        }
+        return new CachedBody(body.getBytes(StandardCharsets.UTF_8), body, MediaType.TEXT_PLAIN);
+    }
+
+    /**
+     * Caches a body only if it is valid JSON.
+     *
+     * @return the cached body, or null if the body is empty or not JSON
+     */
+    public static CachedBody json(String body, String contentType, ObjectMapper objectMapper) {
+        if (body == null || body.isEmpty()) {
+            return null;
+        }
+        try {
+            return of(objectMapper.readTree(body), contentType, objectMapper);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    public static CachedBody of(JsonNode body, String contentType, ObjectMapper objectMapper) {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        return new CachedBody(bytes, new String(bytes, StandardCharsets.UTF_8), jsonMediaType(contentType));
+    }
+
+    /**
+     * Wraps a JSON body generated for a single response. It differs on every
+     * request, so no ETag is computed.
+     */
+    public static CachedBody generated(byte[] json) {
+        return generated(json, null);
+    }
+
+    /**
+     * Wraps a generated JSON body whose content is determined by a seed; the
+     * seed itself serves as a cheap ETag.
+     */
+    public static CachedBody generated(byte[] json, long seed) {
+        return generated(json, "\"s" + Long.toHexString(seed) + "\"");
+    }
+
+    private static CachedBody generated(byte[] json, String etag) {
+        return new CachedBody(json, new String(json, StandardCharsets.UTF_8), MediaType.APPLICATION_JSON, etag);
+    }
+
+    private static MediaType jsonMediaType(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        try {
+            return MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    public int getContentLength() {
+        return bytes.length;
+    }
+
+    public MediaType getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return the quoted ETag, or null for generated bodies
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.mockservice.catalog;
+
+import com.example.mockservice.util.OutputSchema;
+
+/**
+ * Read model of a {@link com.example.mockservice.domain.ServiceOperation} for
+ * the mock-serving path: a detached, immutable copy of the operation, its
+ * service, configuration and rules. Serving a request never needs the
+ * persistence context.
+ *
+ * @param outputSchema compiled outputParameters, used when there is no body
+ *                     to serve
+ * @param defaultBody  pre-serialized defaultResponseBody, or null if missing or
+ *                     not valid JSON
+ * @param config       static configuration, or null if none is saved
+ * @param rules        compiled rules, indexed for dispatch in priority order
+ */
+public record CatalogOperation(String id, String key, String name, String method, String url, String serviceId,
+        String serviceKey, String serviceName, String outputParametersJson, OutputSchema outputSchema,
+        CachedBody defaultBody, CompiledConfig config, RuleIndex rules) {
+}
@@ -0,0 +1,34 @@
+package com.example.mockservice.catalog;
+
+import com.example.mockservice.domain.MockConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * A {@link MockConfiguration} with its custom body pre-serialized, as held by
+ * the {@link MockCatalog}.
+ *
+ * @param latency   delay of every response of the operation, or null for none
+ * @param bandwidth      bytes per second to stream response bodies at, or 0
+ *                       to send them at once
+ * @param cacheResponses whether generated bodies are memoized, or null to
+ *                       follow the global default
+ */
+@Slf4j
+public record CompiledConfig(String id, String operationId, int httpStatus, CachedBody body,
+        LatencyProfile latency, int bandwidth, Boolean cacheResponses) {
+
+    public static CompiledConfig of(MockConfiguration config, ObjectMapper objectMapper) {
+        LatencyProfile latency;
+        try {
+            latency = LatencyProfile.compile(config.getLatency(), objectMapper);
+        } catch (IllegalArgumentException e) {
+            log.warn("Configuration {} has an invalid latency and will respond at once: {}", config.getId(),
+                    e.getMessage());
+            latency = null;
+        }
+        return new CompiledConfig(config.getId(), config.getOperationId(), config.getHttpStatus(),
+                CachedBody.of(config.getCustomResponseBody(), config.getContentType(), objectMapper), latency,
+                config.getBandwidth() != null ? config.getBandwidth() : 0, config.getCacheResponses());
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.mockservice.catalog;
+
+import com.example.mockservice.domain.MockRule;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * A {@link MockRule} with its conditions compiled and its body pre-serialized, as held by the
+ * {@link MockCatalog}.
+ *
+ * @param latency delay of the rule's responses, or null to use the
+ *                operation's configuration
+ */
+@Slf4j
+public record CompiledRule(String id, int priority, RuleCondition condition, int responseStatus,
+        CachedBody responseBody, LatencyProfile latency) {
+
+    public static CompiledRule of(MockRule rule, ObjectMapper objectMapper) {
+        RuleCondition condition;
+        try {
+            condition = RuleCondition.compile(rule.getConditions(), objectMapper);
+        } catch (IllegalArgumentException e) {
+            log.warn("Rule {} has invalid conditions and will never match: {}", rule.getId(), e.getMessage());
+            condition = null;
+        }
+        LatencyProfile latency;
+        try {
+            latency = LatencyProfile.compile(rule.getLatency(), objectMapper);
+        } catch (IllegalArgumentException e) {
+            log.warn("Rule {} has an invalid latency and will respond at once: {}", rule.getId(), e.getMessage());
+            latency = null;
+        }
+        return new CompiledRule(rule.getId(), rule.getPriority(), condition, rule.getResponseStatus(),
+                CachedBody.of(rule.getResponseBody(), null, objectMapper), latency);
+    }
+
+    public boolean isValid() {
+        return condition != null;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.mockservice.catalog;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.random.RandomGenerator;
+
+/**
+ * Response delay compiled from the latency JSON of a
+ * {@link com.example.mockservice.domain.MockConfiguration} or
+ * {@link com.example.mockservice.domain.MockRule}:
+ * <ul>
+ * <li>{@code {"type": "fixed", "ms": 200}}</li>
+ * <li>{@code {"type": "uniform", "min": 100, "max": 300}}</li>
+ * <li>{@code {"type": "normal", "mean": 200, "stddev": 50}}, never below
+ * zero</li>
+ * <li>{@code {"type": "percentiles", "p50": 120, "p90": 300, "p99": 900,
+ * "max": 2000}}: values read off a recorded histogram; delays are
+ * interpolated linearly between the given percentiles, {@code min} and
+ * {@code max} standing for p0 and p100</li>
+ * </ul>
+ * All values are milliseconds.
+ */
+public sealed interface LatencyProfile {
+
+    /**
+     * @return the delay for one response in milliseconds, never negative
+     */
+    long sampleMillis(RandomGenerator random);
+
+    /**
+     * @return the profile, or null if {@code latencyJson} is empty
+     * @throws IllegalArgumentException if the JSON does not describe a profile
+     */
+    static LatencyProfile compile(String latencyJson, ObjectMapper objectMapper) {
+        if (latencyJson == null || latencyJson.isBlank()) {
+            return null;
+        }
+        JsonNode spec;
+        try {
+            spec = objectMapper.readTree(latencyJson);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Latency is not valid JSON: " + e.getMessage(), e);
+        }
+        if (spec == null || !spec.isObject()) {
+            throw new IllegalArgumentException("Latency must be a JSON object, e.g. {\"type\": \"fixed\", \"ms\": 200}");
+        }
+
+        String type = spec.has("type") ? spec.get("type").asString() : "fixed";
+        return switch (type) {
+            case "fixed" -> new Fixed(millis(spec, "ms"));
+            case "uniform" -> {
+                long min = millis(spec, "min");
+                long max = millis(spec, "max");
+                if (max < min) {
+                    throw new IllegalArgumentException("Latency max must not be below min");
+                }
+                yield new Uniform(min, max);
+            }
+            case "normal" -> new Normal(millis(spec, "mean"), millis(spec, "stddev"));
+            case "percentiles" -> Percentiles.of(spec);
+            default -> throw new IllegalArgumentException("Unknown latency type '" + type
+                    + "'; use fixed, uniform, normal or percentiles");
+        };
+    }
+
+    private static long millis(JsonNode spec, String name) {
+        JsonNode value = spec.get(name);
+        if (value == null || !value.isNumber() || value.doubleValue() < 0) {
+            throw new IllegalArgumentException("Latency '" + name + "' must be a non-negative number of milliseconds");
+        }
+        return Math.round(value.doubleValue());
+    }
+
+    record Fixed(long ms) implements LatencyProfile {
+
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            return ms;
+        }
+    }
+
+    record Uniform(long min, long max) implements LatencyProfile {
+
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            return min == max ? min : random.nextLong(min, max + 1);
+        }
+    }
+
+    record Normal(long mean, long stddev) implements LatencyProfile {
+
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            return Math.max(0, Math.round(random.nextGaussian(mean, stddev)));
+        }
+    }
+
+    /**
+     * Inverse of a recorded distribution, as ascending quantiles (0 to 1) and
+     * the delays at them.
+     */
+    record Percentiles(double[] quantiles, double[] delays) implements LatencyProfile {
+
+        static Percentiles of(JsonNode spec) {
+            TreeMap<Double, Double> points = new TreeMap<>();
+            for (Map.Entry<String, JsonNode> entry : spec.properties()) {
+                String name = entry.getKey();
+                double quantile;
+                if (name.equals("min")) {
+                    quantile = 0;
+                } else if (name.equals("max")) {
+                    quantile = 1;
+                } else if (name.startsWith("p")) {
+                    try {
+                        quantile = Double.parseDouble(name.substring(1)) / 100;
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Unknown latency percentile '" + name + "'", e);
+                    }
+                    if (quantile < 0 || quantile > 1) {
+                        throw new IllegalArgumentException("Latency percentile '" + name + "' is out of range");
+                    }
+                } else {
+                    continue;
+                }
+                points.put(quantile, (double) millis(spec, name));
+            }
+            if (points.isEmpty()) {
+                throw new IllegalArgumentException("Percentile latency needs at least one of p50, p90, ...");
+            }
+
+            // Below the lowest and above the highest given percentile the delay stays flat
+            points.putIfAbsent(0.0, points.firstEntry().getValue());
+            points.putIfAbsent(1.0, points.lastEntry().getValue());
+            double[] quantiles = new double[points.size()];
+            double[] delays = new double[points.size()];
+            int i = 0;
+            double previous = 0;
+            for (Map.Entry<Double, Double> point : points.entrySet()) {
+                if (point.getValue() < previous) {
+                    throw new IllegalArgumentException("Latency percentiles must not decrease");
+                }
+                quantiles[i] = point.getKey();
+                delays[i++] = point.getValue();
+                previous = point.getValue();
+            }
+            return new Percentiles(quantiles, delays);
+        }
+
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            double u = random.nextDouble();
+            int i = 1;
+            while (i < quantiles.length - 1 && quantiles[i] < u) {
+                i++;
+            }
+            double span = quantiles[i] - quantiles[i - 1];
+            double fraction = span == 0 ? 1 : (u - quantiles[i - 1]) / span;
+            return Math.round(delays[i - 1] + fraction * (delays[i] - delays[i - 1]));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.mockservice.catalog;
+
+import com.example.mockservice.util.PathTrie;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable routing snapshot of every synced operation, keyed by HTTP method.
+ * Built once by {@link MockCatalogService} and swapped atomically, so serving
+ * a request never touches the database.
+ */
+public final class MockCatalog {
+
+    public static final MockCatalog EMPTY = new MockCatalog(List.of());
+
+    // method -> trie of operation url templates
+    private final Map<String, PathTrie<CatalogOperation>> routes;
+
+    private final Map<String, CatalogOperation> operations;
+
+    public MockCatalog(List<CatalogOperation> operations) {
+        Map<String, PathTrie<CatalogOperation>> byMethod = new HashMap<>();
+        Map<String, CatalogOperation> byId = new HashMap<>();
+        for (CatalogOperation op : operations) {
+            byId.put(op.id(), op);
+            if (op.method() == null || op.url() == null) {
+                continue;
+            }
+            byMethod.computeIfAbsent(op.method(), m -> new PathTrie<>()).insert(op.url(), op);
+        }
+        this.routes = Map.copyOf(byMethod);
+        this.operations = Map.copyOf(byId);
+    }
+
+    /**
+     * Resolves the operations serving a request. Literal segments win over
+     * path variables, so an exact url always beats a template.
+     *
+     * @param method HTTP method of the incoming request
+     * @param path   The actual incoming path
+     * @return the matched operations and captured path variables, or null if
+     *         none match
+     */
+    public PathTrie.Match<CatalogOperation> resolve(String method, String path) {
+        if (method == null || path == null) {
+            return null;
+        }
+        PathTrie<CatalogOperation> trie = routes.get(method);
+        return trie != null ? trie.find(path) : null;
+    }
+
+    /**
+     * @return the operation with the given id, or null if it is not in this
+     *         snapshot
+     */
+    public CatalogOperation operation(String operationId) {
+        return operations.get(operationId);
+    }
+
+    /**
+     * @return every operation in this snapshot, in no particular order
+     */
+    public Collection<CatalogOperation> operations() {
+        return operations.values();
+    }
+
+    /**
+     * Checks the snapshot for operations that cannot be served as synced:
+     * missing method or url, output parameters that are not valid JSON, and
+     * rules whose conditions do not compile and so never match. None of these
+     * stop the snapshot from serving; they are warnings a sync surfaces. Several
+     * operations sharing one url are not reported, as the request handler
+     * resolves them by configuration.
+     *
+     * @return one message per problem, sorted, empty if there are none
+     */
+    public List<String> validate() {
+        List<String> problems = new ArrayList<>();
+        for (CatalogOperation op : operations.values()) {
+            if (op.method() == null || op.url() == null) {
+                problems.add(describe(op) + " has no method or url and cannot be routed");
+            }
+            if (op.outputSchema() != null && op.outputSchema().isFailed()) {
+                problems.add(describe(op) + " has invalid output parameters");
+            }
+            if (op.rules() != null) {
+                for (CompiledRule rule : op.rules().all()) {
+                    if (!rule.isValid()) {
+                        problems.add(describe(op) + " rule " + rule.id() + " has invalid conditions and never matches");
+                    }
+                }
+            }
+        }
+        problems.sort(null);
+        return problems;
+    }
+
+    private static String describe(CatalogOperation op) {
+        return op.serviceKey() + "/" + op.key();
+    }
+
+    public int size() {
+        return operations.size();
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.mockservice.catalog;
+
+import com.example.mockservice.domain.MockConfiguration;
+import com.example.mockservice.domain.MockRule;
+import com.example.mockservice.domain.ServiceDefinition;
+import com.example.mockservice.domain.ServiceOperation;
+import com.example.mockservice.repository.MockConfigurationRepository;
+import com.example.mockservice.repository.MockRuleRepository;
+import com.example.mockservice.repository.ServiceOperationRepository;
+import com.example.mockservice.util.OutputSchema;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Owns the current {@link MockCatalog}. Writers call {@link #refresh()} after
+ * changing operations, configurations or rules, or {@link #refresh(Collection)}
+ * when only some services changed; readers always see a complete snapshot.
+ * A writer that must not commit what cannot be loaded, such as the Flowable
+ * sync, calls {@link #build()} before committing and {@link #publish} after.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MockCatalogService {
+
+    private final ServiceOperationRepository serviceOperationRepository;
+    private final MockRuleRepository mockRuleRepository;
+    private final MockConfigurationRepository mockConfigurationRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile MockCatalog catalog = MockCatalog.EMPTY;
+    private volatile List<String> problems = List.of();
+
+    public MockCatalog current() {
+        return catalog;
+    }
+
+    /**
+     * @return what {@link MockCatalog#validate()} reported for the current
+     *         snapshot
+     */
+    public List<String> problems() {
+        return problems;
+    }
+
+    /**
+     * A rebuilt snapshot that has not been published yet.
+     *
+     * @param catalog    the rebuilt snapshot
+     * @param problems what {@link MockCatalog#validate()} reported for it
+     * @param basedOn  the snapshot that was current when this one was built
+     */
+    public record Candidate(MockCatalog catalog, List<String> problems, MockCatalog basedOn) {
+    }
+
+    /**
+     * Reloads operations, configurations and rules in one read-only
+     * transaction and publishes them as a new snapshot.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void refresh() {
+        long start = System.nanoTime();
+        MockCatalog rebuilt = swap(build());
+        log.info("Mock catalog rebuilt: {} operations in {} ms", rebuilt.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Reloads only the operations of the given services and publishes a new
+     * snapshot that keeps every other operation as it was. Untouched
+     * operations keep their compiled schemas, so their memoized responses stay
+     * valid.
+     *
+     * @param serviceKeys keys of services that were added, changed or removed
+     */
+    @Transactional(readOnly = true)
+    public synchronized void refresh(Collection<String> serviceKeys) {
+        if (serviceKeys.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        MockCatalog rebuilt = swap(build(serviceKeys));
+        log.info("Mock catalog updated for {} services: {} operations in {} ms", serviceKeys.size(),
+                rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Builds and validates a snapshot of every operation without publishing
+     * it. Called inside a writing transaction, it sees that transaction's
+     * uncommitted changes, so a writer can check the result before committing.
+     */
+    @Transactional(readOnly = true)
+    public Candidate build() {
+        MockCatalog basedOn = catalog;
+        Map<String, List<CompiledRule>> rules = compileRules(mockRuleRepository.findAllByOrderByPriorityAsc());
+        Map<String, CompiledConfig> configs = compileConfigs(mockConfigurationRepository.findAll());
+
+        List<CatalogOperation> operations = new ArrayList<>();
+        for (ServiceOperation op : serviceOperationRepository.findAllForCatalog()) {
+            operations.add(toCatalogOperation(op, configs.get(op.getId()),
+                    rules.getOrDefault(op.getId(), List.of())));
+        }
+        return candidate(new MockCatalog(operations), basedOn);
+    }
+
+    /**
+     * Like {@link #build()}, but reloads only the operations of the given
+     * services and keeps every other operation of the current snapshot.
+     *
+     * @param serviceKeys keys of services that were added, changed or removed
+     */
+    @Transactional(readOnly = true)
+    public Candidate build(Collection<String> serviceKeys) {
+        MockCatalog basedOn = catalog;
+        if (serviceKeys.isEmpty()) {
+            return new Candidate(basedOn, problems, basedOn);
+        }
+        Set<String> affected = new HashSet<>(serviceKeys);
+
+        List<CatalogOperation> operations = new ArrayList<>();
+        for (CatalogOperation op : basedOn.operations()) {
+            if (!affected.contains(op.serviceKey())) {
+                operations.add(op);
+            }
+        }
+
+        List<ServiceOperation> reloaded = serviceOperationRepository.findAllForCatalogByServiceKeys(affected);
+        List<String> ids = reloaded.stream().map(ServiceOperation::getId).toList();
+        Map<String, List<CompiledRule>> rules = ids.isEmpty() ? Map.of()
+                : compileRules(mockRuleRepository.findByServiceOperationIdInOrderByPriorityAsc(ids));
+        Map<String, CompiledConfig> configs = ids.isEmpty() ? Map.of()
+                : compileConfigs(mockConfigurationRepository.findByOperationIdIn(ids));
+        for (ServiceOperation op : reloaded) {
+            operations.add(toCatalogOperation(op, configs.get(op.getId()),
+                    rules.getOrDefault(op.getId(), List.of())));
+        }
+        return candidate(new MockCatalog(operations), basedOn);
+    }
+
+    /**
+     * Publishes a candidate unless another snapshot was published since it was
+     * built; the caller then has to rebuild, as the candidate would undo that
+     * change.
+     *
+     * @return whether the candidate is now the current snapshot
+     */
+    public synchronized boolean publish(Candidate candidate) {
+        if (catalog != candidate.basedOn()) {
+            return false;
+        }
+        swap(candidate);
+        return true;
+    }
+
+    private Candidate candidate(MockCatalog rebuilt, MockCatalog basedOn) {
+        return new Candidate(rebuilt, rebuilt.validate(), basedOn);
+    }
+
+    /**
+     * Swaps in a fully built snapshot. Readers hold on to the previous one until
+     * their request completes, so nobody sees a partly built catalog.
+     */
+    private MockCatalog swap(Candidate candidate) {
+        for (String problem : candidate.problems()) {
+            log.warn("Mock catalog: {}", problem);
+        }
+        catalog = candidate.catalog();
+        problems = candidate.problems();
+        return candidate.catalog();
+    }
+
+    private CatalogOperation toCatalogOperation(ServiceOperation op, CompiledConfig config,
+            List<CompiledRule> rules) {
+        ServiceDefinition service = op.getServiceDefinition();
+        CachedBody defaultBody = CachedBody.json(op.getDefaultResponseBody(), null, objectMapper);
+        if (defaultBody == null && op.getDefaultResponseBody() != null && !op.getDefaultResponseBody().isEmpty()) {
+            log.warn("Default response body of operation {} is not valid JSON; random data will be served",
+                    op.getId());
+        }
+        return new CatalogOperation(op.getId(), op.getKey(), op.getName(), op.getMethod(), op.getUrl(),
+                service != null ? service.getId() : null,
+                service != null ? service.getKey() : null,
+                service != null ? service.getName() : null,
+                op.getOutputParametersJson(), OutputSchema.compile(op.getOutputParametersJson(), objectMapper),
+                defaultBody, config, RuleIndex.of(rules));
+    }
+
+    // Rules arrive ordered by priority; grouping keeps that order per operation
+    private Map<String, List<CompiledRule>> compileRules(List<MockRule> ordered) {
+        Map<String, List<CompiledRule>> byOperation = new HashMap<>();
+        for (MockRule rule : ordered) {
+            if (rule.getServiceOperation() == null) {
+                continue;
+            }
+            byOperation.computeIfAbsent(rule.getServiceOperation().getId(), id -> new ArrayList<>())
+                    .add(CompiledRule.of(rule, objectMapper));
+        }
+        return byOperation;
+    }
+
+    private Map<String, CompiledConfig> compileConfigs(List<MockConfiguration> all) {
+        Map<String, CompiledConfig> byOperation = new HashMap<>();
+        for (MockConfiguration config : all) {
+            if (config.getOperationId() != null) {
+                byOperation.put(config.getOperationId(), CompiledConfig.of(config, objectMapper));
+            }
+        }
+        return byOperation;
+    }
+}
@@ -0,0 +1,564 @@
+package com.example.mockservice.catalog;
+
+import tools.jackson.core.JsonPointer;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Immutable predicate compiled from {@link com.example.mockservice.domain.MockRule#getConditions()}.
+ * <p>
+ * Conditions are a JSON object; every entry must hold (AND). The key selects
+ * the value to test:
+ * <ul>
+ * <li>{@code employeeId}: a top-level field of the rule input (body, or
+ * query parameters and path variables)</li>
+ * <li>{@code /customer/address/city}: a JSON pointer into the rule input</li>
+ * <li>{@code header:X-Tenant}: a request header</li>
+ * </ul>
+ * The value says how to test it:
+ * <ul>
+ * <li>{@code "999"}, {@code 100}, {@code true}: equal as strings</li>
+ * <li>{@code ">100"}, {@code ">=100"}, {@code "<100"}, {@code "<=100"}:
+ * numeric comparison</li>
+ * <li>{@code "100..200"}: numeric range, both ends inclusive</li>
+ * <li>{@code "!=closed"}: not equal, or absent</li>
+ * <li>{@code "~^EMP-\\d+$"}: regular expression found in the value</li>
+ * <li>{@code {"$in": ["a", "b"]}}, {@code {"$exists": false}} and the
+ * operators {@code $eq}, {@code $ne}, {@code $gt}, {@code $gte}, {@code $lt},
+ * {@code $lte}, {@code $regex}; several operators in one object must all
+ * hold. {@code $eq} matches a string that would otherwise read as an
+ * operator.</li>
+ * <li>any other object or array: structurally equal</li>
+ * </ul>
+ * A comparison whose operand is not a number, such as {@code "<none>"}, and a
+ * {@code ~} that is not a valid pattern fall back to plain equality, so
+ * literal values written before operators existed keep matching. Values such
+ * as {@code "!=x"}, {@code "~x"} and {@code "1..2"} do read as operators; use
+ * {@code $eq} to match them as text.
+ * Pointers, patterns and numeric literals are parsed once here; evaluation
+ * only walks the compiled clauses.
+ */
+public final class RuleCondition {
+
+    /** Matches any request data; used for rules without conditions. */
+    public static final RuleCondition ALWAYS = new RuleCondition(new Clause[0]);
+
+    private static final String HEADER_PREFIX = "header:";
+    private static final Pattern RANGE = Pattern.compile("([0-9.eE+-]+)\\.\\.([0-9.eE+-]+)");
+
+    private final Clause[] clauses;
+
+    private RuleCondition(Clause[] clauses) {
+        this.clauses = clauses;
+    }
+
+    /**
+     * Compiles a conditions JSON object such as {"employeeId": "999"}.
+     *
+     * @throws IllegalArgumentException if the conditions are not a JSON object
+     *                                  or use an operator incorrectly
+     */
+    public static RuleCondition compile(String conditionsJson, ObjectMapper objectMapper) {
+        if (conditionsJson == null || conditionsJson.isBlank()) {
+            return ALWAYS;
+        }
+
+        JsonNode conditions;
+        try {
+            conditions = objectMapper.readTree(conditionsJson);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Conditions are not valid JSON: " + e.getMessage(), e);
+        }
+        if (conditions == null || !conditions.isObject()) {
+            throw new IllegalArgumentException("Conditions must be a JSON object, e.g. {\"employeeId\": \"999\"}");
+        }
+
+        List<Clause> clauses = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : conditions.properties()) {
+            clauses.add(new Clause(entry.getKey(), accessor(entry.getKey()), test(entry.getKey(), entry.getValue())));
+        }
+        return new RuleCondition(clauses.toArray(new Clause[0]));
+    }
+
+    private static Accessor accessor(String key) {
+        if (key.startsWith("/")) {
+            try {
+                return new PointerAccessor(JsonPointer.compile(key));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid JSON pointer '" + key + "': " + e.getMessage(), e);
+            }
+        }
+        if (key.regionMatches(true, 0, HEADER_PREFIX, 0, HEADER_PREFIX.length())) {
+            String header = key.substring(HEADER_PREFIX.length()).trim();
+            if (header.isEmpty()) {
+                throw new IllegalArgumentException("Missing header name in '" + key + "'");
+            }
+            return new HeaderAccessor(header);
+        }
+        return new FieldAccessor(key);
+    }
+
+    private static Test test(String key, JsonNode value) {
+        if (value.isObject() && !value.isEmpty() && value.propertyNames().stream().allMatch(n -> n.startsWith("$"))) {
+            List<Test> tests = new ArrayList<>();
+            for (Map.Entry<String, JsonNode> operator : value.properties()) {
+                tests.add(operator(key, operator.getKey(), operator.getValue()));
+            }
+            return tests.size() == 1 ? tests.get(0) : new AllOf(tests.toArray(new Test[0]));
+        }
+        if (value.isContainer()) {
+            return new StructuralEquals(value);
+        }
+        if (value.isNull()) {
+            return new Equals("null");
+        }
+        if (!value.isString()) {
+            return new Equals(value.asString());
+        }
+
+        String text = value.asString();
+        if (text.startsWith(">=")) {
+            return compare(text, 2, Compare.GTE);
+        }
+        if (text.startsWith("<=")) {
+            return compare(text, 2, Compare.LTE);
+        }
+        if (text.startsWith(">")) {
+            return compare(text, 1, Compare.GT);
+        }
+        if (text.startsWith("<")) {
+            return compare(text, 1, Compare.LT);
+        }
+        if (text.startsWith("!=")) {
+            return new Not(new Equals(text.substring(2)));
+        }
+        if (text.startsWith("~")) {
+            try {
+                return new Regex(Pattern.compile(text.substring(1)));
+            } catch (PatternSyntaxException e) {
+                return new Equals(text);
+            }
+        }
+        Matcher range = RANGE.matcher(text);
+        if (range.matches()) {
+            double min = parse(range.group(1));
+            double max = parse(range.group(2));
+            if (!Double.isNaN(min) && !Double.isNaN(max)) {
+                return new Range(min, max);
+            }
+        }
+        return new Equals(text);
+    }
+
+    // Literal text such as "<none>" when the operand is not a number
+    private static Test compare(String text, int prefix, int operator) {
+        double operand = parse(text.substring(prefix).trim());
+        return Double.isNaN(operand) ? new Equals(text) : new Compare(operand, operator);
+    }
+
+    private static Test operator(String key, String operator, JsonNode operand) {
+        return switch (operator) {
+            case "$eq" -> operand.isContainer() ? new StructuralEquals(operand) : new Equals(literal(operand));
+            case "$ne" -> new Not(operand.isContainer() ? new StructuralEquals(operand)
+                    : new Equals(literal(operand)));
+            case "$gt" -> new Compare(number(key, operand), Compare.GT);
+            case "$gte" -> new Compare(number(key, operand), Compare.GTE);
+            case "$lt" -> new Compare(number(key, operand), Compare.LT);
+            case "$lte" -> new Compare(number(key, operand), Compare.LTE);
+            case "$regex" -> new Regex(pattern(key, literal(operand)));
+            case "$exists" -> {
+                if (!operand.isBoolean()) {
+                    throw new IllegalArgumentException("$exists of '" + key + "' must be true or false");
+                }
+                yield new Exists(operand.booleanValue());
+            }
+            case "$in" -> {
+                if (!operand.isArray()) {
+                    throw new IllegalArgumentException("$in of '" + key + "' must be an array");
+                }
+                Set<String> values = new HashSet<>();
+                for (JsonNode element : operand) {
+                    values.add(literal(element));
+                }
+                yield new In(values);
+            }
+            default -> throw new IllegalArgumentException("Unknown operator '" + operator + "' on '" + key + "'");
+        };
+    }
+
+    // Same string form a scalar request value is compared in
+    private static String literal(JsonNode value) {
+        return value.isNull() ? "null" : value.isValueNode() ? value.asString() : value.toString();
+    }
+
+    private static double number(String key, JsonNode operand) {
+        if (operand.isNumber()) {
+            return operand.doubleValue();
+        }
+        return number(key, literal(operand));
+    }
+
+    private static double number(String key, String literal) {
+        double value = parse(literal.trim());
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("'" + key + "' compares against '" + literal
+                    + "', which is not a number; use {\"$eq\": ...} to match it as text");
+        }
+        return value;
+    }
+
+    private static Pattern pattern(String key, String regex) {
+        try {
+            return Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException("Invalid pattern for '" + key + "': " + e.getDescription(), e);
+        }
+    }
+
+    // NaN if the text is not a number
+    private static double parse(String text) {
+        if (text.isEmpty()) {
+            return Double.NaN;
+        }
+        char first = text.charAt(0);
+        if (first != '-' && first != '+' && first != '.' && (first < '0' || first > '9')) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * All conditions must match (AND), with every header treated as absent.
+     */
+    public boolean matches(JsonNode requestJson) {
+        return matches(RuleInput.of(requestJson));
+    }
+
+    /**
+     * All conditions must match (AND).
+     */
+    public boolean matches(RuleInput input) {
+        for (Clause clause : clauses) {
+            if (!clause.accessor().matches(clause.test(), input)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * String form of a request value as compared by {@link #matches(JsonNode)}.
+     */
+    static String actualValue(JsonNode actualNode) {
+        return actualNode.isValueNode() ? actualNode.asString() : actualNode.toString();
+    }
+
+    /**
+     * Value the given top-level field must equal for this condition to match,
+     * or null if the condition does not pin the field to one value.
+     */
+    String expectedValue(String key) {
+        for (Clause clause : clauses) {
+            if (clause.key().equals(key) && clause.accessor() instanceof FieldAccessor
+                    && clause.test() instanceof Equals equals) {
+                return equals.expected;
+            }
+        }
+        return null;
+    }
+
+    /** Top-level fields this condition reads, directly or as the first segment of a pointer. */
+    Set<String> fields() {
+        Set<String> fields = new HashSet<>();
+        for (Clause clause : clauses) {
+            if (clause.accessor() instanceof FieldAccessor field) {
+                fields.add(field.name());
+            } else if (clause.accessor() instanceof PointerAccessor pointer) {
+                fields.add(pointer.pointer().getMatchingProperty());
+            }
+        }
+        return fields;
+    }
+
+    /** Top-level fields this condition pins to one value, i.e. those {@link RuleIndex} can index by. */
+    List<String> equalityKeys() {
+        List<String> keys = new ArrayList<>(clauses.length);
+        for (Clause clause : clauses) {
+            if (clause.accessor() instanceof FieldAccessor && clause.test() instanceof Equals) {
+                keys.add(clause.key());
+            }
+        }
+        return keys;
+    }
+
+    private record Clause(String key, Accessor accessor, Test test) {
+    }
+
+    /** Looks up the value a clause tests and applies the test to it. */
+    private interface Accessor {
+
+        boolean matches(Test test, RuleInput input);
+    }
+
+    private record FieldAccessor(String name) implements Accessor {
+
+        @Override
+        public boolean matches(Test test, RuleInput input) {
+            JsonNode value = input.get(name);
+            return value == null ? test.matchesMissing() : test.matches(value);
+        }
+    }
+
+    private record PointerAccessor(JsonPointer pointer) implements Accessor {
+
+        @Override
+        public boolean matches(Test test, RuleInput input) {
+            JsonNode value = input.at(pointer);
+            return value == null ? test.matchesMissing() : test.matches(value);
+        }
+    }
+
+    private record HeaderAccessor(String name) implements Accessor {
+
+        @Override
+        public boolean matches(Test test, RuleInput input) {
+            String value = input.header(name);
+            return value == null ? test.matchesMissing() : test.matches(value);
+        }
+    }
+
+    private abstract static class Test {
+
+        abstract boolean matches(String value);
+
+        boolean matches(JsonNode value) {
+            return matches(actualValue(value));
+        }
+
+        boolean matchesMissing() {
+            return false;
+        }
+    }
+
+    private static final class Equals extends Test {
+
+        private final String expected;
+
+        Equals(String expected) {
+            this.expected = expected;
+        }
+
+        @Override
+        boolean matches(String value) {
+            return expected.equals(value);
+        }
+    }
+
+    private static final class StructuralEquals extends Test {
+
+        private final JsonNode expected;
+
+        StructuralEquals(JsonNode expected) {
+            this.expected = expected;
+        }
+
+        @Override
+        boolean matches(String value) {
+            return false;
+        }
+
+        @Override
+        boolean matches(JsonNode value) {
+            return expected.equals(value);
+        }
+    }
+
+    private static final class Not extends Test {
+
+        private final Test test;
+
+        Not(Test test) {
+            this.test = test;
+        }
+
+        @Override
+        boolean matches(String value) {
+            return !test.matches(value);
+        }
+
+        @Override
+        boolean matches(JsonNode value) {
+            return !test.matches(value);
+        }
+
+        @Override
+        boolean matchesMissing() {
+            return true;
+        }
+    }
+
+    private static final class AllOf extends Test {
+
+        private final Test[] tests;
+
+        AllOf(Test[] tests) {
+            this.tests = tests;
+        }
+
+        @Override
+        boolean matches(String value) {
+            for (Test test : tests) {
+                if (!test.matches(value)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        boolean matches(JsonNode value) {
+            for (Test test : tests) {
+                if (!test.matches(value)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        boolean matchesMissing() {
+            for (Test test : tests) {
+                if (!test.matchesMissing()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private abstract static class NumericTest extends Test {
+
+        abstract boolean matches(double value);
+
+        @Override
+        boolean matches(String value) {
+            double number = parse(value.trim());
+            return !Double.isNaN(number) && matches(number);
+        }
+
+        @Override
+        boolean matches(JsonNode value) {
+            if (value.isNumber()) {
+                return matches(value.doubleValue());
+            }
+            return value.isString() && matches(value.asString());
+        }
+    }
+
+    private static final class Compare extends NumericTest {
+
+        static final int GT = 0;
+        static final int GTE = 1;
+        static final int LT = 2;
+        static final int LTE = 3;
+
+        private final double operand;
+        private final int operator;
+
+        Compare(double operand, int operator) {
+            this.operand = operand;
+            this.operator = operator;
+        }
+
+        @Override
+        boolean matches(double value) {
+            return switch (operator) {
+                case GT -> value > operand;
+                case GTE -> value >= operand;
+                case LT -> value < operand;
+                default -> value <= operand;
+            };
+        }
+    }
+
+    private static final class Range extends NumericTest {
+
+        private final double min;
+        private final double max;
+
+        Range(double min, double max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        boolean matches(double value) {
+            return value >= min && value <= max;
+        }
+    }
+
+    private static final class Regex extends Test {
+
+        private final Pattern pattern;
+
+        Regex(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override
+        boolean matches(String value) {
+            return pattern.matcher(value).find();
+        }
+    }
+
+    private static final class In extends Test {
+
+        private final Set<String> values;
+
+        In(Set<String> values) {
+            this.values = Set.copyOf(values);
+        }
+
+        @Override
+        boolean matches(String value) {
+            return values.contains(value);
+        }
+    }
+
+    private static final class Exists extends Test {
+
+        private final boolean expected;
+
+        Exists(boolean expected) {
+            this.expected = expected;
+        }
+
+        @Override
+        boolean matches(String value) {
+            return expected;
+        }
+
+        @Override
+        boolean matches(JsonNode value) {
+            return expected;
+        }
+
+        @Override
+        boolean matchesMissing() {
+            return !expected;
+        }
+    }
+}
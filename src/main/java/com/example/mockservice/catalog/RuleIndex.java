@@ -0,0 +1,165 @@
+package com.example.mockservice.catalog;
+
+import tools.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rules of one operation, indexed for dispatch.
+ * <p>
+ * Most rule sets pin one request field to a different value per rule, e.g.
+ * {"employeeId": "1"}, {"employeeId": "2"}, ... The index picks the key that
+ * the most rules compare for equality and maps each expected value to the
+ * positions of the rules that require it. A lookup reads that field once and
+ * evaluates only those rules plus the ones that do not constrain the key,
+ * merged back into priority order, so the first match is the same rule a
+ * linear scan would have found. Only plain equality on a top-level field is
+ * indexed; rules using operators, JSON pointers or headers on the chosen key
+ * are among the ones always evaluated.
+ */
+public final class RuleIndex {
+
+    /** Below this many valid rules a plain scan is as fast as a lookup. */
+    static final int MIN_INDEXED_RULES = 8;
+
+    private static final int[] NONE = new int[0];
+
+    private final List<CompiledRule> rules;
+    private final CompiledRule[] valid;
+    private final String indexKey;
+    private final Map<String, int[]> byValue;
+    private final int[] unindexed;
+    private final Set<String> fields;
+
+    private RuleIndex(List<CompiledRule> rules, CompiledRule[] valid, String indexKey, Map<String, int[]> byValue,
+            int[] unindexed) {
+        this.rules = rules;
+        this.valid = valid;
+        this.indexKey = indexKey;
+        this.byValue = byValue;
+        this.unindexed = unindexed;
+        Set<String> fields = new HashSet<>();
+        for (CompiledRule rule : valid) {
+            fields.addAll(rule.condition().fields());
+        }
+        this.fields = Set.copyOf(fields);
+    }
+
+    /**
+     * @param rules compiled rules ordered by priority (lowest first); invalid
+     *              rules are kept for display but never match
+     */
+    public static RuleIndex of(List<CompiledRule> rules) {
+        List<CompiledRule> all = List.copyOf(rules);
+        CompiledRule[] valid = all.stream().filter(CompiledRule::isValid).toArray(CompiledRule[]::new);
+        String indexKey = valid.length < MIN_INDEXED_RULES ? null : mostConstrainedKey(valid);
+        if (indexKey == null) {
+            return new RuleIndex(all, valid, null, Map.of(), NONE);
+        }
+
+        Map<String, List<Integer>> positions = new HashMap<>();
+        List<Integer> unindexed = new ArrayList<>();
+        for (int i = 0; i < valid.length; i++) {
+            String expected = valid[i].condition().expectedValue(indexKey);
+            if (expected == null) {
+                unindexed.add(i);
+            } else {
+                positions.computeIfAbsent(expected, value -> new ArrayList<>()).add(i);
+            }
+        }
+        Map<String, int[]> byValue = new HashMap<>(positions.size() * 2);
+        positions.forEach((value, list) -> byValue.put(value, toArray(list)));
+        return new RuleIndex(all, valid, indexKey, byValue, toArray(unindexed));
+    }
+
+    // Key shared by the most rules; ties go to the key seen first
+    private static String mostConstrainedKey(CompiledRule[] valid) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (CompiledRule rule : valid) {
+            for (String key : rule.condition().equalityKeys()) {
+                counts.merge(key, 1, Integer::sum);
+            }
+        }
+        String best = null;
+        int bestCount = 1;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() > bestCount) {
+                best = entry.getKey();
+                bestCount = entry.getValue();
+            }
+        }
+        return best;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /** All rules in priority order, including invalid ones. */
+    public List<CompiledRule> all() {
+        return rules;
+    }
+
+    /** No rule can ever match, so request data need not be built. */
+    public boolean isEmpty() {
+        return valid.length == 0;
+    }
+
+    /** Top-level request fields any rule reads; the rest of the body can be skipped. */
+    public Set<String> fields() {
+        return fields;
+    }
+
+    /** Key the rules are indexed by, or null if they are scanned. */
+    public String indexKey() {
+        return indexKey;
+    }
+
+    /**
+     * @return the highest-priority valid rule matching the request data, or
+     *         null if none does
+     */
+    public CompiledRule match(JsonNode requestData) {
+        return match(RuleInput.of(requestData));
+    }
+
+    /**
+     * @return the highest-priority valid rule matching the request, or null if
+     *         none does
+     */
+    public CompiledRule match(RuleInput input) {
+        if (indexKey == null) {
+            for (CompiledRule rule : valid) {
+                if (rule.condition().matches(input)) {
+                    return rule;
+                }
+            }
+            return null;
+        }
+
+        JsonNode actual = input.get(indexKey);
+        int[] candidates = actual == null ? NONE : byValue.getOrDefault(RuleCondition.actualValue(actual), NONE);
+
+        // Both position lists are ascending; walk them together to keep priority order
+        int c = 0;
+        int u = 0;
+        while (c < candidates.length || u < unindexed.length) {
+            int next;
+            if (u == unindexed.length || (c < candidates.length && candidates[c] < unindexed[u])) {
+                next = candidates[c++];
+            } else {
+                next = unindexed[u++];
+            }
+            if (valid[next].condition().matches(input)) {
+                return valid[next];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.mockservice.catalog;
+
+import tools.jackson.core.JsonPointer;
+import tools.jackson.databind.JsonNode;
+
+import java.util.function.Function;
+
+/**
+ * Request values a {@link RuleCondition} can test. Implementations only need
+ * to resolve the top-level fields that conditions reference, so the request
+ * body never has to be materialized as a whole tree.
+ */
+public interface RuleInput {
+
+    /**
+     * @return the top-level field, or null if the request has none
+     */
+    JsonNode get(String field);
+
+    /**
+     * @return the request header, or null if absent
+     */
+    default String header(String name) {
+        return null;
+    }
+
+    /**
+     * Resolves a JSON pointer by its first segment, then within that field.
+     *
+     * @return the value, or null if the request has none
+     */
+    default JsonNode at(JsonPointer pointer) {
+        JsonNode field = get(pointer.getMatchingProperty());
+        if (field == null) {
+            return null;
+        }
+        JsonNode value = field.at(pointer.tail());
+        return value.isMissingNode() ? null : value;
+    }
+
+    /** Tests against a complete JSON tree, without headers. */
+    static RuleInput of(JsonNode json) {
+        return of(json, name -> null);
+    }
+
+    /** Tests against a complete JSON tree and a header lookup. */
+    static RuleInput of(JsonNode json, Function<String, String> headers) {
+        return new RuleInput() {
+            @Override
+            public JsonNode get(String field) {
+                return json.get(field);
+            }
+
+            @Override
+            public String header(String name) {
+                return headers.apply(name);
+            }
+        };
+    }
+}
@@ -21,4 +21,11 @@ public class MockConfiguration {
     private String customResponseBody; // If null, use random generation
 
     private String contentType = "application/json";
+
+    @Column(columnDefinition = "TEXT")
+    private String latency; // JSON latency profile: {"type": "fixed", "ms": 200}; null responds at once
+
+    private Integer bandwidth; // Bytes per second to stream response bodies at; null sends them at once
+
+    private Boolean cacheResponses; // Memoize generated bodies; null follows mock.response-cache.enabled
 }
@@ -30,4 +30,7 @@ public class MockRule {
     private String responseBody;
 
     private int priority;
+
+    @Column(columnDefinition = "TEXT")
+    private String latency; // JSON latency profile; null uses the operation's configuration
 }
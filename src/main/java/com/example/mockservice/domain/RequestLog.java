@@ -6,6 +6,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_request_log_timestamp", columnList = "timestamp, id"),
+        @Index(name = "idx_request_log_service", columnList = "serviceName, timestamp"),
+        @Index(name = "idx_request_log_status", columnList = "responseStatus, timestamp")
+})
 @Data
 @NoArgsConstructor
 public class RequestLog {
@@ -23,6 +23,14 @@ public class ServiceDefinition {
     @Column(length = 2048)
     private String description;
 
+    // Flowable resource this definition was last synced from; deployments are immutable
+    private String deploymentId;
+    private String resourceName;
+
+    // SHA-256 of the synced resource data, hex encoded
+    @Column(length = 64)
+    private String contentHash;
+
     @OneToMany(mappedBy = "serviceDefinition", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ServiceOperation> operations = new ArrayList<>();
 }
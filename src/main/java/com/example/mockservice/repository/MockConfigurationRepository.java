@@ -2,8 +2,12 @@ package com.example.mockservice.repository;
 
 import com.example.mockservice.domain.MockConfiguration;
 import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface MockConfigurationRepository extends JpaRepository<MockConfiguration, String> {
     Optional<MockConfiguration> findByOperationId(String operationId);
+
+    List<MockConfiguration> findByOperationIdIn(Collection<String> operationIds);
 }
@@ -2,8 +2,13 @@ package com.example.mockservice.repository;
 
 import com.example.mockservice.domain.MockRule;
 import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.Collection;
 import java.util.List;
 
 public interface MockRuleRepository extends JpaRepository<MockRule, String> {
     List<MockRule> findByServiceOperationIdOrderByPriorityAsc(String serviceOperationId);
+
+    List<MockRule> findAllByOrderByPriorityAsc();
+
+    List<MockRule> findByServiceOperationIdInOrderByPriorityAsc(Collection<String> serviceOperationIds);
 }
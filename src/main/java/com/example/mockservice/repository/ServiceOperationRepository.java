@@ -23,4 +23,14 @@ public interface ServiceOperationRepository extends JpaRepository<ServiceOperati
 
     @org.springframework.data.jpa.repository.EntityGraph(attributePaths = { "rules" })
     Optional<ServiceOperation> findWithRulesById(String id);
+
+    // Loads every operation with its service definition for the in-memory catalog
+    @org.springframework.data.jpa.repository.EntityGraph(attributePaths = { "serviceDefinition" })
+    @org.springframework.data.jpa.repository.Query("select o from ServiceOperation o")
+    List<ServiceOperation> findAllForCatalog();
+
+    @org.springframework.data.jpa.repository.EntityGraph(attributePaths = { "serviceDefinition" })
+    @org.springframework.data.jpa.repository.Query("select o from ServiceOperation o where o.serviceDefinition.key in :serviceKeys")
+    List<ServiceOperation> findAllForCatalogByServiceKeys(
+            @org.springframework.data.repository.query.Param("serviceKeys") java.util.Collection<String> serviceKeys);
 }
@@ -0,0 +1,687 @@
+package com.example.mockservice.service;
+
+import com.example.mockservice.util.Seeds;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Exports and imports mock configurations and rules as one JSON document:
+ * {@code {"version", "exportDate", "configurations": [...], "rules": [...]}}.
+ * <p>
+ * Both directions stream. Export reads the tables in keyset-paged chunks and
+ * writes each row straight to the generator; import reads one element at a
+ * time from the parser. Memory use depends on the batch size (and, for a
+ * diff import, on the number of stored rows and changes), not on the size of
+ * the file.
+ * <p>
+ * Rows carry the service and operation keys next to the operation id.
+ * Operation ids are generated at sync time, so import resolves the keys
+ * against the current operations first and only falls back to the id.
+ */
+@Service
+@Slf4j
+public class ConfigurationTransferService {
+
+    public static final String VERSION = "1.1";
+
+    private static final String OPERATIONS_SQL = "select o.id, d.\"key\", o.\"key\" from service_operation o "
+            + "left join service_definition d on d.id = o.service_definition_id";
+
+    private static final String CONFIGURATION_PAGE_SQL = "select c.id, c.operation_id, d.\"key\", o.\"key\", "
+            + "c.http_status, c.custom_response_body, c.content_type, c.latency, c.bandwidth, "
+            + "c.cache_responses from mock_configuration c "
+            + "left join service_operation o on o.id = c.operation_id "
+            + "left join service_definition d on d.id = o.service_definition_id "
+            + "where c.id > ? order by c.id fetch first ? rows only";
+
+    private static final String RULE_PAGE_SQL = "select r.id, r.service_operation_id, d.\"key\", o.\"key\", "
+            + "r.conditions, r.response_status, r.response_body, r.priority, r.latency from mock_rule r "
+            + "left join service_operation o on o.id = r.service_operation_id "
+            + "left join service_definition d on d.id = o.service_definition_id "
+            + "where r.id > ? order by r.id fetch first ? rows only";
+
+    private static final String INSERT_CONFIGURATION_SQL = "insert into mock_configuration "
+            + "(id, operation_id, http_status, custom_response_body, content_type, latency, bandwidth, "
+            + "cache_responses) values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_RULE_SQL = "insert into mock_rule "
+            + "(id, service_operation_id, conditions, response_status, response_body, priority, latency) "
+            + "values (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_CONFIGURATION_SQL = "update mock_configuration "
+            + "set http_status = ?, custom_response_body = ?, content_type = ?, latency = ?, bandwidth = ?, "
+            + "cache_responses = ? where id = ?";
+
+    private static final String UPDATE_RULE_SQL = "update mock_rule "
+            + "set response_status = ?, response_body = ?, priority = ?, latency = ? where id = ?";
+
+    private static final String DELETE_CONFIGURATION_SQL = "delete from mock_configuration where id = ?";
+
+    private static final String DELETE_RULE_SQL = "delete from mock_rule where id = ?";
+
+    /**
+     * How an import reconciles the file with the stored rows.
+     */
+    public enum ImportMode {
+        /** Insert, update and delete only the rows that differ. */
+        DIFF,
+        /** Delete every stored row of each section in the file and insert the file's rows. */
+        REPLACE
+    }
+
+    /**
+     * Outcome of one import.
+     *
+     * @param configurations  configurations in the file
+     * @param rules           rules in the file whose operation exists
+     * @param skippedRules    rules whose operation does not exist in this
+     *                        instance
+     * @param changedServices services whose configurations or rules changed;
+     *                        empty after a {@link ImportMode#REPLACE} import,
+     *                        which changes everything
+     */
+    public record ImportResult(int configurations, int rules, int skippedRules, int inserted, int updated,
+            int deleted, Set<String> changedServices) {
+
+        public ImportResult {
+            changedServices = Set.copyOf(changedServices);
+        }
+
+        public int unchanged() {
+            return configurations + rules - inserted - updated;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public ConfigurationTransferService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper, @Value("${mock.import-export.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Writes every configuration and rule to {@code out}. The stream is
+     * flushed but not closed.
+     */
+    public void export(OutputStream out) {
+        try (JsonGenerator gen = objectMapper.createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeStringProperty("version", VERSION);
+            gen.writeStringProperty("exportDate", java.time.Instant.now().toString());
+
+            gen.writeArrayPropertyStart("configurations");
+            writePages(CONFIGURATION_PAGE_SQL, gen, row -> {
+                gen.writeStartObject();
+                gen.writeStringProperty("id", (String) row[0]);
+                gen.writeStringProperty("operationId", (String) row[1]);
+                gen.writeStringProperty("serviceKey", (String) row[2]);
+                gen.writeStringProperty("operationKey", (String) row[3]);
+                gen.writeNumberProperty("httpStatus", ((Number) row[4]).intValue());
+                gen.writeStringProperty("customResponseBody", (String) row[5]);
+                gen.writeStringProperty("contentType", (String) row[6]);
+                gen.writeStringProperty("latency", (String) row[7]);
+                if (row[8] != null) {
+                    gen.writeNumberProperty("bandwidth", ((Number) row[8]).intValue());
+                } else {
+                    gen.writeNullProperty("bandwidth");
+                }
+                if (row[9] != null) {
+                    gen.writeBooleanProperty("cacheResponses", (Boolean) row[9]);
+                } else {
+                    gen.writeNullProperty("cacheResponses");
+                }
+                gen.writeEndObject();
+            });
+            gen.writeEndArray();
+
+            gen.writeArrayPropertyStart("rules");
+            writePages(RULE_PAGE_SQL, gen, row -> {
+                gen.writeStartObject();
+                gen.writeStringProperty("id", (String) row[0]);
+                gen.writeStringProperty("serviceOperationId", (String) row[1]);
+                gen.writeStringProperty("serviceKey", (String) row[2]);
+                gen.writeStringProperty("operationKey", (String) row[3]);
+                gen.writeStringProperty("conditions", (String) row[4]);
+                gen.writeNumberProperty("responseStatus", ((Number) row[5]).intValue());
+                gen.writeStringProperty("responseBody", (String) row[6]);
+                gen.writeNumberProperty("priority", ((Number) row[7]).intValue());
+                gen.writeStringProperty("latency", (String) row[8]);
+                gen.writeEndObject();
+            });
+            gen.writeEndArray();
+
+            gen.writeEndObject();
+        }
+    }
+
+    private void writePages(String sql, JsonGenerator gen, java.util.function.Consumer<Object[]> writer) {
+        String after = "";
+        while (true) {
+            List<Object[]> page = jdbcTemplate.query(sql, (rs, i) -> {
+                int columns = rs.getMetaData().getColumnCount();
+                Object[] row = new Object[columns];
+                for (int c = 0; c < columns; c++) {
+                    row[c] = rs.getObject(c + 1);
+                }
+                return row;
+            }, after, batchSize);
+            for (Object[] row : page) {
+                writer.accept(row);
+            }
+            gen.flush();
+            if (page.size() < batchSize) {
+                return;
+            }
+            after = (String) page.get(page.size() - 1)[0];
+        }
+    }
+
+    /**
+     * Imports with {@link ImportMode#DIFF}.
+     */
+    public ImportResult importFrom(InputStream in) {
+        return importFrom(in, ImportMode.DIFF);
+    }
+
+    /**
+     * Makes configurations and/or rules match the ones in {@code in}. Accepts
+     * the export format, where only the sections present are imported, and the
+     * legacy format: a plain array of configurations. Either everything is
+     * applied or, on error, nothing is.
+     * <p>
+     * {@link ImportMode#DIFF} parses the file outside any transaction, compares
+     * each row with the stored one by its stable key and then applies only the
+     * inserts, updates and deletes in one short transaction. Configurations are
+     * keyed by operation; rules by operation and a fingerprint of their
+     * conditions (key order and whitespace do not matter).
+     */
+    public ImportResult importFrom(InputStream in, ImportMode mode) {
+        if (mode == ImportMode.REPLACE) {
+            return transactionTemplate.execute(status -> {
+                Replace replace = new Replace();
+                read(in, operations(), replace);
+                return replace.result();
+            });
+        }
+        Diff diff = new Diff();
+        read(in, diff.all, diff);
+        return transactionTemplate.execute(status -> diff.apply());
+    }
+
+    private void read(InputStream in, Operations operations, Import sink) {
+        try (JsonParser parser = objectMapper.createParser(in)) {
+            JsonToken first = parser.nextToken();
+            if (first == JsonToken.START_ARRAY) {
+                readConfigurations(parser, operations, sink);
+                return;
+            }
+            if (first != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Expected a JSON object or array");
+            }
+
+            String name;
+            while ((name = parser.nextName()) != null) {
+                JsonToken token = parser.nextToken();
+                if (name.equals("configurations") && token == JsonToken.START_ARRAY) {
+                    readConfigurations(parser, operations, sink);
+                } else if (name.equals("rules") && token == JsonToken.START_ARRAY) {
+                    readRules(parser, operations, sink);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private void readConfigurations(JsonParser parser, Operations operations, Import sink) {
+        sink.beginConfigurations();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            Row row = readRow(parser);
+            // Configurations are not constrained to existing operations, so an unknown id is kept
+            String operationId = operations.resolve(row, row.string("operationId"));
+            sink.configurations++;
+            sink.configuration(new ConfigurationRow(row.string("id"),
+                    operationId != null ? operationId : row.string("operationId"), row.integer("httpStatus", 200),
+                    row.string("customResponseBody"),
+                    row.has("contentType") ? row.string("contentType") : "application/json",
+                    row.string("latency"), row.integer("bandwidth"), row.bool("cacheResponses")));
+        }
+        sink.endConfigurations();
+    }
+
+    private void readRules(JsonParser parser, Operations operations, Import sink) {
+        sink.beginRules();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            Row row = readRow(parser);
+            String operationId = operations.resolve(row, row.string("serviceOperationId"));
+            if (operationId == null) {
+                sink.skippedRules++;
+                continue;
+            }
+            sink.rules++;
+            sink.rule(new RuleRow(row.string("id"), operationId, row.string("conditions"),
+                    row.integer("responseStatus", 200), row.string("responseBody"), row.integer("priority", 10),
+                    row.string("latency")));
+        }
+        sink.endRules();
+    }
+
+    private Operations operations() {
+        Map<String, String> ids = new HashMap<>();
+        Map<String, String> services = new HashMap<>();
+        jdbcTemplate.query(OPERATIONS_SQL, rs -> {
+            String id = rs.getString(1);
+            ids.put(id, id);
+            if (rs.getString(2) != null) {
+                services.put(id, rs.getString(2));
+                if (rs.getString(3) != null) {
+                    ids.put(rs.getString(2) + "/" + rs.getString(3), id);
+                }
+            }
+        });
+        return new Operations(ids, services);
+    }
+
+    /**
+     * @param ids      (serviceKey + "/" + operationKey) and operation id to
+     *                 operation id
+     * @param services operation id to service key
+     */
+    private record Operations(Map<String, String> ids, Map<String, String> services) {
+
+        String resolve(Row row, String id) {
+            if (row.string("serviceKey") != null && row.string("operationKey") != null) {
+                String resolved = ids.get(row.string("serviceKey") + "/" + row.string("operationKey"));
+                if (resolved != null) {
+                    return resolved;
+                }
+            }
+            return id != null ? ids.get(id) : null;
+        }
+    }
+
+    private record ConfigurationRow(String id, String operationId, int httpStatus, String body,
+            String contentType, String latency, Integer bandwidth, Boolean cacheResponses) {
+
+        long payload() {
+            return Seeds.hash(Seeds.hash(Seeds.hash(Seeds.hash(Seeds.hash(Seeds.hash(Integer.toString(httpStatus)),
+                    body), contentType), latency), bandwidth != null ? bandwidth.toString() : null),
+                    cacheResponses != null ? cacheResponses.toString() : null);
+        }
+    }
+
+    private record RuleRow(String id, String operationId, String conditions, int responseStatus,
+            String responseBody, int priority, String latency) {
+
+        long payload() {
+            return Seeds.hash(Seeds.hash(Seeds.hash(Seeds.hash(Integer.toString(responseStatus)), responseBody),
+                    Integer.toString(priority)), latency);
+        }
+    }
+
+    // A stored row: its id, what it is matched by and a hash of everything else
+    private record Stored(String id, String operationId, long payload) {
+    }
+
+    /**
+     * Receives rows in file order and tracks what the import changed.
+     */
+    private abstract class Import {
+
+        int configurations;
+        int rules;
+        int skippedRules;
+        int inserted;
+        int updated;
+        int deleted;
+        final Set<String> touched = new HashSet<>();
+
+        abstract void beginConfigurations();
+
+        abstract void configuration(ConfigurationRow row);
+
+        abstract void endConfigurations();
+
+        abstract void beginRules();
+
+        abstract void rule(RuleRow row);
+
+        abstract void endRules();
+
+        ImportResult result(Operations all) {
+            Set<String> services = new HashSet<>();
+            for (String operationId : touched) {
+                String service = all.services().get(operationId);
+                if (service != null) {
+                    services.add(service);
+                }
+            }
+            return new ImportResult(configurations, rules, skippedRules, inserted, updated, deleted, services);
+        }
+    }
+
+    /**
+     * Deletes each section as it starts and inserts its rows in batches.
+     */
+    private class Replace extends Import {
+
+        private final List<Object[]> batch = new ArrayList<>(batchSize);
+
+        @Override
+        void beginConfigurations() {
+            deleted += jdbcTemplate.update("delete from mock_configuration");
+        }
+
+        @Override
+        void configuration(ConfigurationRow row) {
+            batch.add(new Object[] { idOf(row.id()), row.operationId(), row.httpStatus(), row.body(),
+                    row.contentType(), row.latency(), row.bandwidth(), row.cacheResponses() });
+            flushIfFull(INSERT_CONFIGURATION_SQL);
+        }
+
+        @Override
+        void endConfigurations() {
+            flush(INSERT_CONFIGURATION_SQL, batch);
+        }
+
+        @Override
+        void beginRules() {
+            deleted += jdbcTemplate.update("delete from mock_rule");
+        }
+
+        @Override
+        void rule(RuleRow row) {
+            batch.add(new Object[] { idOf(row.id()), row.operationId(), row.conditions(), row.responseStatus(),
+                    row.responseBody(), row.priority(), row.latency() });
+            flushIfFull(INSERT_RULE_SQL);
+        }
+
+        @Override
+        void endRules() {
+            flush(INSERT_RULE_SQL, batch);
+        }
+
+        private void flushIfFull(String sql) {
+            inserted++;
+            if (batch.size() == batchSize) {
+                flush(sql, batch);
+            }
+        }
+
+        ImportResult result() {
+            // Everything was rewritten, so the whole catalog has to be reloaded anyway
+            return new ImportResult(configurations, rules, skippedRules, inserted, 0, deleted, Set.of());
+        }
+    }
+
+    /**
+     * Matches rows against the stored ones and keeps only the differences.
+     * Memory grows with the stored keys and the changed rows, not with the
+     * size of the file.
+     */
+    private class Diff extends Import {
+
+        private final Operations all = operations();
+
+        private Map<String, Stored> storedConfigurations;
+        private Set<String> configurationIds;
+        private final List<Object[]> configurationInserts = new ArrayList<>();
+        private final List<Object[]> configurationUpdates = new ArrayList<>();
+        private final List<Object[]> configurationDeletes = new ArrayList<>();
+
+        // Several rules may share operation and conditions; they are matched in order
+        private Map<String, ArrayDeque<Stored>> storedRules;
+        private Set<String> ruleIds;
+        private final List<Object[]> ruleInserts = new ArrayList<>();
+        private final List<Object[]> ruleUpdates = new ArrayList<>();
+        private final List<Object[]> ruleDeletes = new ArrayList<>();
+
+        @Override
+        void beginConfigurations() {
+            storedConfigurations = new HashMap<>();
+            configurationIds = new HashSet<>();
+            jdbcTemplate.query("select id, operation_id, http_status, custom_response_body, content_type, "
+                    + "latency, bandwidth, cache_responses from mock_configuration", rs -> {
+                        ConfigurationRow row = new ConfigurationRow(rs.getString(1), rs.getString(2), rs.getInt(3),
+                                rs.getString(4), rs.getString(5), rs.getString(6), rs.getObject(7, Integer.class),
+                                rs.getObject(8, Boolean.class));
+                        storedConfigurations.put(row.operationId(), new Stored(row.id(), row.operationId(),
+                                row.payload()));
+                        configurationIds.add(row.id());
+                    });
+        }
+
+        @Override
+        void configuration(ConfigurationRow row) {
+            Stored stored = storedConfigurations.remove(row.operationId());
+            if (stored == null) {
+                configurationInserts.add(new Object[] { newId(row.id(), configurationIds), row.operationId(),
+                        row.httpStatus(), row.body(), row.contentType(), row.latency(), row.bandwidth(),
+                        row.cacheResponses() });
+                touched.add(row.operationId());
+            } else if (stored.payload() != row.payload()) {
+                configurationUpdates.add(new Object[] { row.httpStatus(), row.body(), row.contentType(),
+                        row.latency(), row.bandwidth(), row.cacheResponses(), stored.id() });
+                touched.add(row.operationId());
+            }
+        }
+
+        @Override
+        void endConfigurations() {
+            for (Stored stored : storedConfigurations.values()) {
+                configurationDeletes.add(new Object[] { stored.id() });
+                touched.add(stored.operationId());
+            }
+            storedConfigurations = null;
+        }
+
+        @Override
+        void beginRules() {
+            storedRules = new HashMap<>();
+            ruleIds = new HashSet<>();
+            jdbcTemplate.query("select id, service_operation_id, conditions, response_status, response_body, "
+                    + "priority, latency from mock_rule order by priority, id", rs -> {
+                        RuleRow row = new RuleRow(rs.getString(1), rs.getString(2), rs.getString(3), rs.getInt(4),
+                                rs.getString(5), rs.getInt(6), rs.getString(7));
+                        storedRules.computeIfAbsent(fingerprint(row), k -> new ArrayDeque<>())
+                                .add(new Stored(row.id(), row.operationId(), row.payload()));
+                        ruleIds.add(row.id());
+                    });
+        }
+
+        @Override
+        void rule(RuleRow row) {
+            ArrayDeque<Stored> candidates = storedRules.get(fingerprint(row));
+            Stored stored = candidates != null ? candidates.poll() : null;
+            if (stored == null) {
+                ruleInserts.add(new Object[] { newId(row.id(), ruleIds), row.operationId(), row.conditions(),
+                        row.responseStatus(), row.responseBody(), row.priority(), row.latency() });
+                touched.add(row.operationId());
+            } else if (stored.payload() != row.payload()) {
+                ruleUpdates.add(new Object[] { row.responseStatus(), row.responseBody(), row.priority(),
+                        row.latency(), stored.id() });
+                touched.add(row.operationId());
+            }
+        }
+
+        @Override
+        void endRules() {
+            for (ArrayDeque<Stored> remaining : storedRules.values()) {
+                for (Stored stored : remaining) {
+                    ruleDeletes.add(new Object[] { stored.id() });
+                    touched.add(stored.operationId());
+                }
+            }
+            storedRules = null;
+        }
+
+        /**
+         * Deletes first, so a unique operation freed by a delete can be
+         * inserted again.
+         */
+        ImportResult apply() {
+            chunked(DELETE_CONFIGURATION_SQL, configurationDeletes);
+            chunked(DELETE_RULE_SQL, ruleDeletes);
+            chunked(UPDATE_CONFIGURATION_SQL, configurationUpdates);
+            chunked(UPDATE_RULE_SQL, ruleUpdates);
+            chunked(INSERT_CONFIGURATION_SQL, configurationInserts);
+            chunked(INSERT_RULE_SQL, ruleInserts);
+
+            inserted = configurationInserts.size() + ruleInserts.size();
+            updated = configurationUpdates.size() + ruleUpdates.size();
+            deleted = configurationDeletes.size() + ruleDeletes.size();
+            log.info("Import diff applied: {} inserted, {} updated, {} deleted", inserted, updated, deleted);
+            return result(all);
+        }
+
+        // Ids only mean something inside one instance; reuse the file's id when it is free
+        private static String newId(String id, Set<String> taken) {
+            return id != null && !id.isEmpty() && !taken.contains(id) ? id : UUID.randomUUID().toString();
+        }
+    }
+
+    private void chunked(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+        }
+    }
+
+    private void flush(String sql, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+
+    private String fingerprint(RuleRow row) {
+        return row.operationId() + "\n" + canonicalConditions(row.conditions());
+    }
+
+    private String canonicalConditions(String conditions) {
+        if (conditions == null || conditions.isBlank()) {
+            return "";
+        }
+        try {
+            StringBuilder out = new StringBuilder(conditions.length());
+            canonical(objectMapper.readTree(conditions), out);
+            return out.toString();
+        } catch (Exception e) {
+            return conditions;
+        }
+    }
+
+    // Object keys sorted, no whitespace
+    private static void canonical(JsonNode node, StringBuilder out) {
+        if (node.isObject()) {
+            Map<String, JsonNode> sorted = new TreeMap<>();
+            node.properties().forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<String, JsonNode> entry : sorted.entrySet()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                out.append(tools.jackson.databind.node.JsonNodeFactory.instance.stringNode(entry.getKey())).append(':');
+                canonical(entry.getValue(), out);
+            }
+            out.append('}');
+        } else if (node.isArray()) {
+            out.append('[');
+            for (int i = 0; i < node.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                canonical(node.get(i), out);
+            }
+            out.append(']');
+        } else {
+            out.append(node);
+        }
+    }
+
+    private static String idOf(String id) {
+        return id != null && !id.isEmpty() ? id : UUID.randomUUID().toString();
+    }
+
+    /**
+     * Reads the object the parser is positioned on. Scalars are kept as text;
+     * an object or array value (conditions written inline) is kept as its JSON.
+     * Older exports nest the whole operation under "serviceOperation"; only its
+     * id is kept, as "serviceOperationId".
+     */
+    private Row readRow(JsonParser parser) {
+        Map<String, String> values = new HashMap<>();
+        String name;
+        while ((name = parser.nextName()) != null) {
+            JsonToken token = parser.nextToken();
+            if (name.equals("serviceOperation") && token == JsonToken.START_OBJECT) {
+                String nested;
+                while ((nested = parser.nextName()) != null) {
+                    parser.nextToken();
+                    if (nested.equals("id")) {
+                        values.put("serviceOperationId", parser.getValueAsString());
+                    }
+                    parser.skipChildren();
+                }
+            } else if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                values.put(name, parser.readValueAsTree().toString());
+            } else {
+                values.put(name, token == JsonToken.VALUE_NULL ? null : parser.getValueAsString());
+            }
+        }
+        return new Row(values);
+    }
+
+    private record Row(Map<String, String> values) {
+
+        boolean has(String name) {
+            return values.containsKey(name);
+        }
+
+        String string(String name) {
+            return values.get(name);
+        }
+
+        int integer(String name, int defaultValue) {
+            String value = values.get(name);
+            return value != null ? Integer.parseInt(value) : defaultValue;
+        }
+
+        Integer integer(String name) {
+            String value = values.get(name);
+            return value != null ? Integer.valueOf(value) : null;
+        }
+
+        Boolean bool(String name) {
+            String value = values.get(name);
+            return value != null ? Boolean.valueOf(value) : null;
+        }
+    }
+}
@@ -8,8 +8,30 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -19,6 +41,7 @@ public class FlowableClientService {
     private final ServiceDefinitionRepository serviceDefinitionRepository;
     private final WebClient.Builder webClientBuilder;
     private final com.example.mockservice.util.RandomDataGenerator randomDataGenerator;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${flowable.host}")
     private String flowableHost;
@@ -29,9 +52,63 @@ public class FlowableClientService {
     @Value("${flowable.password}")
     private String flowablePassword;
 
-    @Transactional
-    public void syncDefinitions() {
-        log.info("Starting synchronization with Flowable host: {}", flowableHost);
+    @Value("${flowable.sync.concurrency:8}")
+    private int concurrency = 8;
+
+    @Value("${flowable.sync.batch-size:25}")
+    private int batchSize = 25;
+
+    @Value("${flowable.sync.max-retries:3}")
+    private int maxRetries = 3;
+
+    @Value("${flowable.sync.retry-backoff:200ms}")
+    private Duration retryBackoff = Duration.ofMillis(200);
+
+    /**
+     * Incremental sync; see {@link #syncDefinitions(boolean)}.
+     */
+    public SyncReport syncDefinitions() {
+        return syncDefinitions(false);
+    }
+
+    /**
+     * Fetches service definitions from Flowable and saves the ones that changed.
+     * <p>
+     * Flowable deployments are immutable, so a resource whose deploymentId and
+     * resourceName were already synced is not downloaded again. A downloaded
+     * definition whose content hash matches the stored one only has its
+     * deployment recorded; otherwise its operations are diffed by key and only
+     * new or changed operations are written. Default bodies are regenerated only
+     * when an operation's output parameters changed.
+     * <p>
+     * Resource data is fetched with bounded concurrency, retrying transient
+     * failures (I/O errors and 5xx) with exponential backoff. A definition that
+     * cannot be fetched or is malformed is reported and skipped.
+     * <p>
+     * The fetched definitions are held in memory until every fetch is done and
+     * then written in batches inside one transaction, so other readers of the
+     * tables see either none of the run or all of it. If a write fails, or
+     * listing the definitions fails, the run aborts and nothing is saved.
+     *
+     * @param full download and rewrite every definition, regenerating all
+     *             default bodies
+     */
+    public SyncReport syncDefinitions(boolean full) {
+        return syncDefinitions(full, report -> {
+        });
+    }
+
+    /**
+     * Like {@link #syncDefinitions(boolean)}, but lets the caller check the
+     * outcome before it is committed.
+     *
+     * @param beforeCommit called inside the write transaction once every
+     *                     definition is written and flushed; throwing rolls
+     *                     the whole run back
+     */
+    public SyncReport syncDefinitions(boolean full, Consumer<SyncReport> beforeCommit) {
+        log.info("Starting {} synchronization with Flowable host: {}", full ? "full" : "incremental", flowableHost);
+        long start = System.nanoTime();
 
         // Encode basic auth header
         String basicAuth = "Basic "
@@ -42,87 +119,208 @@ public class FlowableClientService {
                 .defaultHeader(org.springframework.http.HttpHeaders.AUTHORIZATION, basicAuth)
                 .build();
 
-        // 1. Fetch Request
-        // Assuming the list endpoint returns a structure with "data": [ ... ]
-        // or just a list. Based on standard Flowable, it's often a paged response.
-        // For now, I'll attempt to fetch and handle the response as JsonNode to inspect
-        // structure.
-
+        // 1. Fetch the list. Standard Flowable returns a paged {"data": [...]},
+        // some versions a plain array.
+        JsonNode listResponse;
         try {
-            JsonNode listResponse = webClient.get()
+            listResponse = webClient.get()
                     .uri("/service-registry-api/service-repository/service-definitions?latest=true")
                     .retrieve()
                     .bodyToMono(JsonNode.class)
-                    .block(); // Blocking for simplicity in this sync task
-
-            if (listResponse != null && listResponse.has("data")) {
-                JsonNode data = listResponse.get("data");
-                if (data.isArray()) {
-                    for (JsonNode summary : data) {
-                        System.out.println("DEBUG: Processing summary: " + summary.toString());
-                        String deploymentId = summary.has("deploymentId") ? summary.get("deploymentId").asString()
-                                : null;
-                        String resourceName = summary.has("resourceName") ? summary.get("resourceName").asString()
-                                : null;
-
-                        if (deploymentId != null && resourceName != null) {
-                            fetchAndSaveDefinition(webClient, deploymentId, resourceName);
-                        } else {
-                            System.out.println("DEBUG: Missing deploymentId or resourceName in summary: " + summary);
-                        }
-                    }
-                }
-            } else if (listResponse != null && listResponse.isArray()) {
-                for (JsonNode summary : listResponse) {
-                    System.out.println("DEBUG: Processing summary (array): " + summary.toString());
-                    String deploymentId = summary.has("deploymentId") ? summary.get("deploymentId").asString() : null;
-                    String resourceName = summary.has("resourceName") ? summary.get("resourceName").asString() : null;
-
-                    if (deploymentId != null && resourceName != null) {
-                        fetchAndSaveDefinition(webClient, deploymentId, resourceName);
-                    } else {
-                        System.out.println("DEBUG: Missing deploymentId or resourceName in summary: " + summary);
-                    }
-                }
-            }
-
-            log.info("Synchronization completed.");
-
+                    .retryWhen(retry())
+                    .block();
         } catch (Exception e) {
             log.error("Failed to sync definitions", e);
             throw new RuntimeException("Sync failed", e);
         }
+
+        Queue<SyncReport.Failure> failures = new ConcurrentLinkedQueue<>();
+        List<Summary> listed = summaries(listResponse, failures);
+        int total = listed.size() + failures.size();
+
+        // Skip resources whose deployment was already synced
+        Set<Summary> synced = full ? Set.of() : syncedResources();
+        List<Summary> summaries = listed.stream().filter(summary -> !synced.contains(summary)).toList();
+        int unchanged = listed.size() - summaries.size();
+        AtomicInteger fetched = new AtomicInteger();
+        Queue<Fetched> staged = new ConcurrentLinkedQueue<>();
+
+        // 2. Fetch resource data concurrently; nothing is written until every fetch is done
+        Flux.fromIterable(summaries)
+                .flatMap(summary -> fetchDefinition(webClient, summary)
+                        .doOnNext(definition -> {
+                            int done = fetched.incrementAndGet();
+                            log.debug("Fetched {}/{}: {}", done, summaries.size(), summary);
+                        })
+                        .onErrorResume(e -> {
+                            log.warn("Error fetching definition {}: {}", summary, e.toString());
+                            failures.add(summary.failure(e));
+                            return Mono.empty();
+                        }), concurrency)
+                .filter(definition -> isWellFormed(definition, failures))
+                .doOnNext(staged::add)
+                .blockLast();
+
+        // 3. Write every batch in one transaction
+        List<Fetched> valid = new ArrayList<>(staged);
+        SyncReport report = transactionTemplate.execute(status -> {
+            List<String> changed = new ArrayList<>();
+            for (int from = 0; from < valid.size(); from += batchSize) {
+                int to = Math.min(from + batchSize, valid.size());
+                changed.addAll(saveBatch(valid.subList(from, to), full));
+                log.info("Sync progress: {} of {} fetched definitions written", to, valid.size());
+            }
+            SyncReport outcome = new SyncReport(total, changed.size(),
+                    unchanged + valid.size() - changed.size(), new HashSet<>(changed),
+                    new ArrayList<>(failures), Duration.ofNanos(System.nanoTime() - start));
+            beforeCommit.accept(outcome);
+            return outcome;
+        });
+        log.info("Synchronization completed: {} of {} definitions saved, {} unchanged, in {} ms", report.saved(),
+                report.total(), report.unchanged(), report.elapsed().toMillis());
+        if (report.hasFailures()) {
+            log.warn("Definitions skipped during sync: {}", report.failures());
+        }
+        return report;
+    }
+
+    private List<Summary> summaries(JsonNode listResponse, Queue<SyncReport.Failure> failures) {
+        JsonNode data = null;
+        if (listResponse != null && listResponse.has("data")) {
+            data = listResponse.get("data");
+        } else if (listResponse != null && listResponse.isArray()) {
+            data = listResponse;
+        }
+
+        List<Summary> summaries = new ArrayList<>();
+        if (data == null || !data.isArray()) {
+            return summaries;
+        }
+        for (JsonNode summary : data) {
+            String deploymentId = summary.has("deploymentId") ? summary.get("deploymentId").asString() : null;
+            String resourceName = summary.has("resourceName") ? summary.get("resourceName").asString() : null;
+
+            if (deploymentId != null && resourceName != null) {
+                summaries.add(new Summary(deploymentId, resourceName));
+            } else {
+                log.warn("Missing deploymentId or resourceName in summary: {}", summary);
+                failures.add(new SyncReport.Failure(deploymentId, resourceName,
+                        "Missing deploymentId or resourceName"));
+            }
+        }
+        return summaries;
+    }
+
+    private Set<Summary> syncedResources() {
+        Set<Summary> synced = new HashSet<>();
+        for (ServiceDefinition def : serviceDefinitionRepository.findAll()) {
+            if (def.getDeploymentId() != null && def.getResourceName() != null && def.getContentHash() != null) {
+                synced.add(new Summary(def.getDeploymentId(), def.getResourceName()));
+            }
+        }
+        return synced;
     }
 
-    private void fetchAndSaveDefinition(WebClient webClient, String deploymentId, String resourceName) {
-        log.info("Fetching details for deploymentId: {}, resourceName: {}", deploymentId, resourceName);
+    private Mono<Fetched> fetchDefinition(WebClient webClient, Summary summary) {
+        return webClient.get()
+                .uri("/service-registry-api/service-repository/deployments/{deploymentId}/resourcedata/{resourceName}",
+                        summary.deploymentId(), summary.resourceName())
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .switchIfEmpty(Mono.error(new IllegalStateException("Empty resource data")))
+                .retryWhen(retry())
+                .map(detail -> new Fetched(summary, detail, contentHash(detail)));
+    }
+
+    private Retry retry() {
+        return Retry.backoff(maxRetries, retryBackoff)
+                .filter(FlowableClientService::isTransient)
+                .doBeforeRetry(signal -> log.debug("Retrying Flowable request (attempt {}): {}",
+                        signal.totalRetries() + 1, signal.failure().toString()))
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    private static boolean isTransient(Throwable e) {
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429;
+        }
+        return e instanceof WebClientRequestException;
+    }
+
+    static String contentHash(JsonNode detail) {
         try {
-            JsonNode detail = webClient.get()
-                    .uri("/service-registry-api/service-repository/deployments/{deploymentId}/resourcedata/{resourceName}",
-                            deploymentId, resourceName)
-                    .retrieve()
-                    .bodyToMono(JsonNode.class)
-                    .block();
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(detail.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
-            if (detail != null) {
-                System.out.println("DEBUG: Detail response keys: " + detail.properties());
-                if (detail.has("operations")) {
-                    System.out.println("DEBUG: Found operations: " + detail.get("operations").size());
-                } else {
-                    System.out
-                            .println("DEBUG: No 'operations' key found in detail response. JSON: " + detail.toString());
+    /**
+     * Checks that a definition and each of its operations have a key, so a
+     * malformed definition is skipped before anything is written.
+     */
+    private static boolean isWellFormed(Fetched fetched, Queue<SyncReport.Failure> failures) {
+        JsonNode key = fetched.detail().get("key");
+        if (key == null || key.isNull()) {
+            failures.add(fetched.summary().failure("Definition has no key"));
+            return false;
+        }
+        JsonNode operations = fetched.detail().get("operations");
+        if (operations != null && operations.isArray()) {
+            for (JsonNode opNode : operations) {
+                if (!opNode.hasNonNull("key")) {
+                    failures.add(fetched.summary().failure("Operation has no key"));
+                    return false;
                 }
-                saveDefinition(detail);
             }
-        } catch (Exception e) {
-            log.error("Error fetching definition for deploymentId {} resourceName {}", deploymentId, resourceName, e);
         }
+        return true;
+    }
+
+    /**
+     * Saves one batch, looking up existing definitions with one query, and
+     * flushes it so the session does not hold the whole run's SQL. Definitions
+     * whose content hash is unchanged only record the new deployment.
+     *
+     * @return keys of the definitions whose content changed
+     */
+    private List<String> saveBatch(List<Fetched> batch, boolean full) {
+        Map<String, ServiceDefinition> existing = new HashMap<>();
+        for (ServiceDefinition def : serviceDefinitionRepository
+                .findByKeyIn(batch.stream().map(f -> f.detail().get("key").asString()).toList())) {
+            existing.put(def.getKey(), def);
+        }
+
+        // A key listed twice in one batch is applied twice to the same entity
+        Map<String, ServiceDefinition> definitions = new LinkedHashMap<>();
+        List<String> keys = new ArrayList<>();
+        for (Fetched fetched : batch) {
+            String key = fetched.detail().get("key").asString();
+            ServiceDefinition def = definitions.computeIfAbsent(key,
+                    k -> existing.getOrDefault(k, new ServiceDefinition()));
+            if (full || !fetched.hash().equals(def.getContentHash())) {
+                applyDefinition(def, fetched.detail(), full);
+                def.setContentHash(fetched.hash());
+                keys.add(key);
+            }
+            def.setDeploymentId(fetched.summary().deploymentId());
+            def.setResourceName(fetched.summary().resourceName());
+        }
+        serviceDefinitionRepository.saveAll(definitions.values());
+        serviceDefinitionRepository.flush();
+        return keys;
     }
 
-    private void saveDefinition(JsonNode json) {
+    /**
+     * Copies a definition onto the entity, matching operations by key. Unchanged
+     * values are left alone so Hibernate only updates rows that differ.
+     *
+     * @param regenerate regenerate default bodies even if the output parameters
+     *                   did not change
+     */
+    private void applyDefinition(ServiceDefinition def, JsonNode json, boolean regenerate) {
         String key = json.get("key").asString();
-        ServiceDefinition def = serviceDefinitionRepository.findByKey(key)
-                .orElse(new ServiceDefinition());
 
         def.setKey(key);
         if (json.has("name"))
@@ -131,21 +329,23 @@ public class FlowableClientService {
             def.setDescription(json.get("description").asString());
 
         // Track keys to remove orphans later
-        java.util.List<String> incomingKeys = new java.util.ArrayList<>();
+        Set<String> incomingKeys = new HashSet<>();
+        Map<String, ServiceOperation> current = new HashMap<>();
+        for (ServiceOperation op : def.getOperations()) {
+            current.put(op.getKey(), op);
+        }
 
         if (json.has("operations") && json.get("operations").isArray()) {
             for (JsonNode opNode : json.get("operations")) {
                 String opKey = opNode.get("key").asString();
                 incomingKeys.add(opKey);
 
-                ServiceOperation op = def.getOperations().stream()
-                        .filter(o -> o.getKey().equals(opKey))
-                        .findFirst()
-                        .orElse(new ServiceOperation());
-
-                if (op.getId() == null) {
+                ServiceOperation op = current.get(opKey);
+                if (op == null) {
+                    op = new ServiceOperation();
                     op.setServiceDefinition(def);
                     def.getOperations().add(op);
+                    current.put(opKey, op);
                 }
 
                 op.setKey(opKey);
@@ -167,20 +367,42 @@ public class FlowableClientService {
                 }
                 if (opNode.has("outputParameters")) {
                     String outputsJson = opNode.get("outputParameters").toString();
-                    op.setOutputParametersJson(outputsJson);
 
-                    // Generate static random data for this operation
-                    tools.jackson.databind.JsonNode generated = randomDataGenerator
-                            .generateReflectedOutput(outputsJson);
-                    op.setDefaultResponseBody(generated.toString());
+                    // Generate static random data for this operation, unless its outputs are unchanged
+                    if (regenerate || op.getDefaultResponseBody() == null
+                            || !outputsJson.equals(op.getOutputParametersJson())) {
+                        tools.jackson.databind.JsonNode generated = randomDataGenerator
+                                .generateReflectedOutput(outputsJson, key + "/" + opKey);
+                        op.setDefaultResponseBody(generated.toString());
+                    }
+                    op.setOutputParametersJson(outputsJson);
                 }
             }
+        } else {
+            log.debug("No 'operations' key found in definition {}", key);
         }
 
         // Remove operations that are not in the incoming list
         def.getOperations().removeIf(op -> !incomingKeys.contains(op.getKey()));
-
-        serviceDefinitionRepository.save(def);
         log.info("Saved service definition: {}", key);
     }
+
+    private record Summary(String deploymentId, String resourceName) {
+
+        SyncReport.Failure failure(Throwable e) {
+            return failure(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+
+        SyncReport.Failure failure(String reason) {
+            return new SyncReport.Failure(deploymentId, resourceName, reason);
+        }
+
+        @Override
+        public String toString() {
+            return deploymentId + "/" + resourceName;
+        }
+    }
+
+    private record Fetched(Summary summary, JsonNode detail, String hash) {
+    }
 }
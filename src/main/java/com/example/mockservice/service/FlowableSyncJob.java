@@ -0,0 +1,159 @@
+package com.example.mockservice.service;
+
+import com.example.mockservice.catalog.MockCatalogService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs Flowable syncs in the background, one at a time, on a schedule or on
+ * demand.
+ * <p>
+ * A sync writes all definitions in one transaction that mock traffic never
+ * reads; requests are served from the current catalog snapshot the whole
+ * time. Before that transaction commits, a new snapshot is built from it; if
+ * that fails, the sync is rolled back and the current snapshot stays.
+ * Otherwise the sync commits and the snapshot is swapped in, so requests see
+ * either the old operations or the new ones. What the snapshot's validation
+ * reports is kept as warnings and does not stop the swap.
+ */
+@Component
+@Slf4j
+public class FlowableSyncJob {
+
+    /**
+     * State of the job for the admin pages.
+     *
+     * @param running    a sync is in progress
+     * @param finishedAt end of the last sync, or null if none has run
+     * @param lastReport outcome of the last successful sync, or null
+     * @param lastError  message of the last failed sync, or null if it
+     *                   succeeded
+     * @param problems   warnings about the catalog the last successful sync
+     *                   published, see {@link MockCatalogService#problems()}
+     */
+    public record Status(boolean running, Instant finishedAt, SyncReport lastReport, String lastError,
+            List<String> problems) {
+    }
+
+    private final FlowableClientService flowableClientService;
+    private final MockCatalogService mockCatalogService;
+    private final boolean syncOnStartup;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "flowable-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicReference<CompletableFuture<SyncReport>> running = new AtomicReference<>();
+
+    private volatile Instant finishedAt;
+    private volatile SyncReport lastReport;
+    private volatile String lastError;
+    private volatile List<String> problems = List.of();
+
+    public FlowableSyncJob(FlowableClientService flowableClientService, MockCatalogService mockCatalogService,
+            @Value("${flowable.sync.on-startup:false}") boolean syncOnStartup) {
+        this.flowableClientService = flowableClientService;
+        this.mockCatalogService = mockCatalogService;
+        this.syncOnStartup = syncOnStartup;
+    }
+
+    /**
+     * Starts a sync unless one is already running.
+     *
+     * @param full see {@link FlowableClientService#syncDefinitions(boolean)}
+     * @return completes with the report of the sync that was started, or of the
+     *         one already in progress
+     */
+    public CompletableFuture<SyncReport> trigger(boolean full) {
+        CompletableFuture<SyncReport> future = new CompletableFuture<>();
+        CompletableFuture<SyncReport> current = running.compareAndExchange(null, future);
+        if (current != null) {
+            log.info("Flowable sync already running; not starting another");
+            return current;
+        }
+        try {
+            executor.execute(() -> run(full, future));
+        } catch (RejectedExecutionException e) {
+            running.set(null);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    public boolean isRunning() {
+        return running.get() != null;
+    }
+
+    public Status status() {
+        return new Status(isRunning(), finishedAt, lastReport, lastError, problems);
+    }
+
+    @Scheduled(cron = "${flowable.sync.cron:-}")
+    public void scheduledSync() {
+        trigger(false);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startupSync() {
+        if (syncOnStartup) {
+            trigger(false);
+        }
+    }
+
+    private void run(boolean full, CompletableFuture<SyncReport> future) {
+        SyncReport report = null;
+        Exception failure = null;
+        AtomicReference<MockCatalogService.Candidate> built = new AtomicReference<>();
+        try {
+            // A definition the catalog cannot load fails the build and rolls the sync back
+            report = flowableClientService.syncDefinitions(full, synced -> built.set(full
+                    ? mockCatalogService.build()
+                    : mockCatalogService.build(synced.changedServices())));
+            // An admin change published meanwhile is not in the candidate; rebuild from the committed tables
+            if (!mockCatalogService.publish(built.get())) {
+                if (full) {
+                    mockCatalogService.refresh();
+                } else {
+                    mockCatalogService.refresh(report.changedServices());
+                }
+            }
+        } catch (Exception e) {
+            log.error("Flowable sync failed; the catalog was left unchanged", e);
+            failure = e;
+        }
+
+        if (failure == null) {
+            lastReport = report;
+            lastError = null;
+            problems = mockCatalogService.problems();
+        } else {
+            lastError = failure.getMessage();
+        }
+        finishedAt = Instant.now();
+        running.set(null);
+
+        if (failure == null) {
+            future.complete(report);
+        } else {
+            future.completeExceptionally(failure);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.mockservice.service;
+
+import com.example.mockservice.catalog.LatencyProfile;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds mock responses back by their {@link LatencyProfile} without holding a
+ * thread. A delayed response is handed to Spring MVC as a
+ * {@link CompletableFuture}, so the servlet thread is released at once and the
+ * request waits as an async context. All pending delays share the JDK's single
+ * delay scheduler thread; each costs one scheduled task until it is due, when
+ * the response is written from a container thread.
+ */
+@Component
+public class LatencyInjector {
+
+    private final long maxDelayMillis;
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public LatencyInjector(MeterRegistry meterRegistry,
+            @Value("${mock.latency.max-delay:30s}") Duration maxDelay) {
+        this.maxDelayMillis = maxDelay.toMillis();
+        Gauge.builder("mock.latency.pending", pending, AtomicInteger::get)
+                .description("Mock responses currently held back by a latency profile")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the response itself if it is not delayed, or a future that
+     *         completes with it once the sampled delay (capped at
+     *         mock.latency.max-delay) has passed
+     */
+    public Object delay(MockResponse response) {
+        long delay = delayMillis(response);
+        if (delay <= 0) {
+            return response.entity();
+        }
+
+        pending.incrementAndGet();
+        return CompletableFuture.supplyAsync(() -> {
+            pending.decrementAndGet();
+            return response.entity();
+        }, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, Runnable::run));
+    }
+
+    /**
+     * @return a delay sampled from the response's latency profile, capped at
+     *         mock.latency.max-delay, or 0 if it has none
+     */
+    public long delayMillis(MockResponse response) {
+        LatencyProfile latency = response.latency();
+        return latency == null ? 0 : Math.min(latency.sampleMillis(ThreadLocalRandom.current()), maxDelayMillis);
+    }
+
+    int pending() {
+        return pending.get();
+    }
+}
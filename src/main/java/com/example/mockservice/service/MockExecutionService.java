@@ -1,16 +1,24 @@
 package com.example.mockservice.service;
 
-import com.example.mockservice.domain.MockConfiguration;
+import com.example.mockservice.catalog.CachedBody;
+import com.example.mockservice.catalog.CatalogOperation;
+import com.example.mockservice.catalog.CompiledConfig;
+import com.example.mockservice.catalog.CompiledRule;
+import com.example.mockservice.catalog.LatencyProfile;
+import com.example.mockservice.catalog.MockCatalog;
+import com.example.mockservice.catalog.MockCatalogService;
+import com.example.mockservice.catalog.RuleCondition;
+import com.example.mockservice.catalog.RuleIndex;
+import com.example.mockservice.catalog.RuleInput;
 import com.example.mockservice.domain.RequestLog;
-import com.example.mockservice.domain.ServiceDefinition;
 import com.example.mockservice.domain.ServiceOperation;
-import com.example.mockservice.repository.MockConfigurationRepository;
 import com.example.mockservice.repository.MockRuleRepository;
-import com.example.mockservice.repository.RequestLogRepository;
 import com.example.mockservice.repository.ServiceOperationRepository;
+import com.example.mockservice.util.PathTrie;
+import com.example.mockservice.util.PathVariables;
 import com.example.mockservice.util.RandomDataGenerator;
-import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ObjectNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -18,8 +26,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -27,220 +36,169 @@ import java.util.List;
 public class MockExecutionService {
 
     private final ServiceOperationRepository serviceOperationRepository;
-    private final MockConfigurationRepository mockConfigurationRepository;
     private final MockRuleRepository mockRuleRepository;
-    private final RequestLogRepository requestLogRepository;
+    private final RequestLogWriter requestLogWriter;
     private final RandomDataGenerator randomDataGenerator;
     private final ObjectMapper objectMapper;
+    private final MockCatalogService mockCatalogService;
+    private final MockMetrics mockMetrics;
+    private final ResponseCache responseCache;
 
-    @Transactional
+    /**
+     * Convenience overload for callers that already hold the body as a string.
+     */
     public ResponseEntity<Object> executeMock(String method, String path, String body,
             java.util.Map<String, String[]> queryParams) {
-        // 1. Find Operation - Try exact match first, then pattern matching
-        List<ServiceOperation> ops = serviceOperationRepository.findByMethodAndUrl(method, path);
-
-        // If no exact match, try pattern matching for path variables
-        if (ops.isEmpty()) {
-            log.debug("No exact match for path: {}, trying pattern matching", path);
-            List<ServiceOperation> allOpsForMethod = serviceOperationRepository.findByMethod(method);
-
-            // Create a mutable list for pattern matching results
-            ops = new java.util.ArrayList<>();
-            for (ServiceOperation op : allOpsForMethod) {
-                if (com.example.mockservice.util.PathMatcher.matches(op.getUrl(), path)) {
-                    ops.add(op);
-                    log.debug("Pattern matched: {} -> {}", op.getUrl(), path);
-                }
-            }
-        }
+        return executeMock(MockRequest.of(method, path, body, queryParams));
+    }
 
-        if (ops.isEmpty()) {
-            logRequest("UNKNOWN", method + " " + path, body, 404, "Operation not found");
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Operation not found for path: " + path);
+    /**
+     * Serves a mock response from the current {@link MockCatalog} snapshot.
+     * Runs without a transaction and never loads JPA entities; only the admin
+     * write side uses the repositories. The request body is parsed only if a
+     * rule has to be evaluated against it.
+     */
+    public ResponseEntity<Object> executeMock(MockRequest request) {
+        return serve(request).entity();
+    }
+
+    /**
+     * Like {@link #executeMock(MockRequest)}, but also returns the latency
+     * profile the response should be delayed by and the bandwidth it should be
+     * streamed at; see {@link LatencyInjector}.
+     */
+    public MockResponse serve(MockRequest request) {
+        String method = request.getMethod();
+        String path = request.getPath();
+        long start = mockMetrics.start();
+
+        // 1. Find Operation - resolved from the in-memory catalog (literal segments
+        // win over path variables)
+        MockCatalog catalog = mockCatalogService.current();
+        PathTrie.Match<CatalogOperation> match = catalog.resolve(method, path);
+        long stageStart = mockMetrics.stage(MockMetrics.Stage.ROUTE, start);
+
+        if (match == null) {
+            logRequest("UNKNOWN", method + " " + path, request.bodyText(), 404, "Operation not found");
+            mockMetrics.request(null, null, null, 404, start);
+            return new MockResponse(
+                    ResponseEntity.status(HttpStatus.NOT_FOUND).body("Operation not found for path: " + path), null, 0);
         }
 
-        log.debug("Found {} matching operations for method: {}, path: {}", ops.size(), method, path);
+        List<PathTrie.Route<CatalogOperation>> routes = match.getRoutes();
+        log.debug("Found {} matching operations for method: {}, path: {}", routes.size(), method, path);
 
-        ServiceOperation selectedOp = null;
-        MockConfiguration selectedConfig = null;
+        PathTrie.Route<CatalogOperation> selectedRoute = null;
+        CompiledConfig selectedConfig = null;
 
         // 2. Try to find a configured operation among matches
-        for (ServiceOperation op : ops) {
-            Optional<MockConfiguration> configOpt = mockConfigurationRepository.findByOperationId(op.getId());
-            if (configOpt.isPresent()) {
-                selectedOp = op;
-                selectedConfig = configOpt.get();
-                log.debug("Selected configured operation: {} ({})", op.getName(), op.getId());
+        for (PathTrie.Route<CatalogOperation> route : routes) {
+            CatalogOperation op = route.getValue();
+            if (op.config() != null) {
+                selectedRoute = route;
+                selectedConfig = op.config();
+                log.debug("Selected configured operation: {} ({})", op.name(), op.id());
                 break;
             }
         }
 
         // 3. Fallback to first available if no configuration found
-        if (selectedOp == null) {
-            selectedOp = ops.get(0);
-            log.debug("No configuration found for any matching operation. defaulting to: {} ({})", selectedOp.getName(),
-                    selectedOp.getId());
+        if (selectedRoute == null) {
+            selectedRoute = routes.get(0);
+            log.debug("No configuration found for any matching operation. defaulting to: {} ({})",
+                    selectedRoute.getValue().name(), selectedRoute.getValue().id());
         }
 
-        ServiceOperation op = selectedOp;
-        ServiceDefinition service = op.getServiceDefinition();
+        CatalogOperation op = selectedRoute.getValue();
 
         log.debug("Executing mock for method: {}, path: {}", method, path);
 
-        // Extract path variables if the operation URL contains them
-        java.util.Map<String, String> pathVariables = com.example.mockservice.util.PathMatcher
-                .extractPathVariables(op.getUrl(), path);
+        // Path variables were captured while resolving the route
+        PathVariables pathVariables = match.variables(selectedRoute);
         if (!pathVariables.isEmpty()) {
             log.debug("Extracted path variables: {}", pathVariables);
         }
 
         int status = 200;
-        Object responseBody = null;
+        CachedBody responseBody = null;
+        String matchedRule = null;
+        LatencyProfile latency = selectedConfig != null ? selectedConfig.latency() : null;
+        // Bandwidth is a property of the operation, so it also applies to rule responses
+        int bandwidth = selectedConfig != null ? selectedConfig.bandwidth() : 0;
 
-        // 3. Check for Rule-Based Overrides
-        List<com.example.mockservice.domain.MockRule> rules = mockRuleRepository
-                .findByServiceOperationIdOrderByPriorityAsc(op.getId());
+        // 3. Check for Rule-Based Overrides (conditions were compiled with the catalog)
+        RuleIndex rules = op.rules();
 
         if (!rules.isEmpty()) {
-            JsonNode requestData = null;
-
-            // Try to parse body first (for POST/PUT/PATCH)
-            if (body != null && !body.isEmpty()) {
-                try {
-                    requestData = objectMapper.readTree(body);
-                } catch (Exception e) {
-                    log.warn("Failed to parse request body for rule matching", e);
-                }
-            }
-
-            // If no body, create JSON from query parameters and path variables
-            if (requestData == null) {
-                try {
-                    java.util.Map<String, String> combinedParams = new java.util.HashMap<>();
-
-                    // Add query parameters
-                    if (queryParams != null && !queryParams.isEmpty()) {
-                        for (java.util.Map.Entry<String, String[]> entry : queryParams.entrySet()) {
-                            // Take first value if multiple values exist
-                            if (entry.getValue() != null && entry.getValue().length > 0) {
-                                combinedParams.put(entry.getKey(), entry.getValue()[0]);
-                            }
-                        }
-                    }
-
-                    // Add path variables
-                    if (!pathVariables.isEmpty()) {
-                        combinedParams.putAll(pathVariables);
-                    }
-
-                    if (!combinedParams.isEmpty()) {
-                        requestData = objectMapper.valueToTree(combinedParams);
-                    }
-                } catch (Exception e) {
-                    log.warn("Failed to convert query params and path variables for rule matching", e);
-                }
-            } else {
-                // If we have body data, add path variables to it for rule matching
-                if (!pathVariables.isEmpty()) {
-                    try {
-                        java.util.Map<String, Object> requestDataMap = objectMapper.convertValue(requestData,
-                                new tools.jackson.core.type.TypeReference<java.util.Map<String, Object>>() {
-                                });
-                        requestDataMap.putAll(pathVariables);
-                        requestData = objectMapper.valueToTree(requestDataMap);
-                    } catch (Exception e) {
-                        log.warn("Failed to merge path variables with request body", e);
-                    }
-                }
-            }
-
-            // Match rules against request data
-            if (requestData != null) {
-                for (com.example.mockservice.domain.MockRule rule : rules) {
-                    if (isRuleMatch(rule, requestData)) {
-                        log.debug("Matched rule: {} (priority={})", rule.getId(), rule.getPriority());
-                        status = rule.getResponseStatus();
-                        if (rule.getResponseBody() != null && !rule.getResponseBody().isEmpty()) {
-                            try {
-                                responseBody = objectMapper.readTree(rule.getResponseBody());
-                            } catch (Exception e) {
-                                responseBody = rule.getResponseBody();
-                            }
-                        }
-                        selectedConfig = null; // Rule takes precedence
-                        break;
-                    }
+            RuleInput input = ruleInput(request, pathVariables, rules.fields());
+            CompiledRule rule = input != null ? rules.match(input) : null;
+            if (rule != null) {
+                log.debug("Matched rule: {} (priority={})", rule.id(), rule.priority());
+                status = rule.responseStatus();
+                responseBody = rule.responseBody();
+                matchedRule = rule.id();
+                selectedConfig = null; // Rule takes precedence
+                if (rule.latency() != null) {
+                    latency = rule.latency();
                 }
             }
+            stageStart = mockMetrics.stage(MockMetrics.Stage.RULES, stageStart);
         }
 
         // 4. Apply Static Configuration (if no rule matched)
         if (responseBody == null && selectedConfig != null) {
-            MockConfiguration config = selectedConfig;
-            log.debug("Applying config: status={}, body={}", config.getHttpStatus(), config.getCustomResponseBody());
-            status = config.getHttpStatus();
-            if (config.getCustomResponseBody() != null && !config.getCustomResponseBody().isEmpty()) {
-                try {
-                    responseBody = objectMapper.readTree(config.getCustomResponseBody());
-                } catch (Exception e) {
-                    responseBody = config.getCustomResponseBody();
-                }
-            }
+            CompiledConfig config = selectedConfig;
+            log.debug("Applying config: status={}, body={}", config.httpStatus(), config.body());
+            status = config.httpStatus();
+            responseBody = config.body();
         }
 
-        // 5. Generate Random Data if no custom body
+        // 5. Serve the body generated at sync time, or (possibly memoized) random data if there is none
         if (responseBody == null) {
-            if (op.getDefaultResponseBody() != null && !op.getDefaultResponseBody().isEmpty()) {
-                try {
-                    responseBody = objectMapper.readTree(op.getDefaultResponseBody());
-                } catch (Exception e) {
-                    log.warn("Failed to parse default response body for operation {}", op.getId(), e);
-                    responseBody = randomDataGenerator.generateReflectedOutput(op.getOutputParametersJson());
-                }
-            } else {
-                responseBody = randomDataGenerator.generateReflectedOutput(op.getOutputParametersJson());
-            }
+            responseBody = op.defaultBody();
+        }
+        if (responseBody == null) {
+            responseBody = responseCache.get(op, pathVariables, request.getQueryParams(),
+                    () -> generateBody(op, pathVariables, request));
         }
+        stageStart = mockMetrics.stage(MockMetrics.Stage.BODY, stageStart);
 
         // 6. Log
-        logRequest(service != null ? service.getName() : "UNKNOWN", op.getName() + " (" + method + " " + path + ")",
-                body, status, responseBody);
-
-        return ResponseEntity.status(status).body(responseBody);
+        logRequest(op.serviceName() != null ? op.serviceName() : "UNKNOWN", op.name() + " (" + method + " " + path + ")",
+                request.bodyText(), status, responseBody);
+        mockMetrics.stage(MockMetrics.Stage.LOG, stageStart);
+        mockMetrics.request(op.serviceKey(), op.key(), matchedRule, status, start);
+
+        return new MockResponse(ResponseEntity.status(status)
+                .contentType(responseBody.getContentType())
+                .contentLength(responseBody.getContentLength())
+                .eTag(responseBody.getEtag())
+                .body(responseBody.getBytes()), latency, bandwidth);
     }
 
-    private boolean isRuleMatch(com.example.mockservice.domain.MockRule rule, JsonNode requestJson) {
-        try {
-            if (rule.getConditions() == null || rule.getConditions().isEmpty()) {
-                return true;
-            }
-
-            // Use Map conversion to avoid JsonNode iteration API issues
-            java.util.Map<String, Object> conditions = objectMapper.convertValue(
-                    objectMapper.readTree(rule.getConditions()),
-                    new tools.jackson.core.type.TypeReference<java.util.Map<String, Object>>() {
-                    });
-
-            for (java.util.Map.Entry<String, Object> entry : conditions.entrySet()) {
-                String key = entry.getKey();
-                // Simple equality check for now
-                String expectedValue = String.valueOf(entry.getValue());
-
-                if (!requestJson.has(key))
-                    return false;
-
-                // Safe string conversion
-                JsonNode actualNode = requestJson.get(key);
-                String actualValue = actualNode.isValueNode() ? actualNode.asString() : actualNode.toString();
+    private CachedBody generateBody(CatalogOperation op, PathVariables pathVariables, MockRequest request) {
+        if (randomDataGenerator.isSeeded()) {
+            long seed = randomDataGenerator.requestSeed(op.serviceKey(), op.key(), pathVariables,
+                    request.getQueryParams());
+            return CachedBody.generated(randomDataGenerator.generate(op.outputSchema(), seed), seed);
+        }
+        return CachedBody.generated(randomDataGenerator.generate(op.outputSchema()));
+    }
 
-                if (!actualValue.equals(expectedValue))
-                    return false;
-            }
-            return true;
-        } catch (Exception e) {
-            log.error("Error evaluating rule conditions", e);
+    /**
+     * Rule input is the JSON body with path variables layered over it, or the
+     * query parameters and path variables when there is no JSON body. Only the
+     * body fields the rules reference are extracted.
+     *
+     * @return the input, or null if the request carries no data at all
+     */
+    private RuleInput ruleInput(MockRequest request, PathVariables pathVariables, Set<String> fields) {
+        ObjectNode bodyFields = request.bodyFields(objectMapper, fields);
+        Map<String, String[]> queryParams = request.getQueryParams();
+        if (bodyFields == null && pathVariables.isEmpty() && (queryParams == null || queryParams.isEmpty())) {
+            return null;
         }
-        return false;
+        return new RequestRuleInput(pathVariables, bodyFields, queryParams, request.getHeaders());
     }
 
     private void logRequest(String serviceName, String operationName, String requestBody, int status,
@@ -252,15 +210,13 @@ public class MockExecutionService {
             log.setRequestBody(requestBody);
             log.setResponseStatus(status);
 
-            if (responseBody instanceof JsonNode) {
-                log.setResponseBody(responseBody.toString());
-            } else if (responseBody != null) {
+            if (responseBody != null) {
                 log.setResponseBody(responseBody.toString());
             }
 
-            requestLogRepository.save(log);
+            requestLogWriter.submit(log);
         } catch (Exception e) {
-            log.error("Failed to save request log", e);
+            log.error("Failed to queue request log", e);
         }
     }
 
@@ -269,6 +225,10 @@ public class MockExecutionService {
         ServiceOperation op = serviceOperationRepository.findById(operationId)
                 .orElseThrow(() -> new IllegalArgumentException("Invalid operation Id: " + operationId));
 
+        // Reject conditions and latencies that would never compile
+        RuleCondition.compile(rule.getConditions(), objectMapper);
+        LatencyProfile.compile(rule.getLatency(), objectMapper);
+
         // Create a new rule entity to avoid detached entity issues
         com.example.mockservice.domain.MockRule newRule = new com.example.mockservice.domain.MockRule();
         newRule.setServiceOperation(op);
@@ -276,6 +236,7 @@ public class MockExecutionService {
         newRule.setResponseStatus(rule.getResponseStatus());
         newRule.setResponseBody(rule.getResponseBody());
         newRule.setPriority(rule.getPriority() == 0 ? 10 : rule.getPriority());
+        newRule.setLatency(rule.getLatency() != null && !rule.getLatency().isBlank() ? rule.getLatency() : null);
 
         // Save the new rule
         mockRuleRepository.save(newRule);
@@ -0,0 +1,129 @@
+package com.example.mockservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers for the mock-serving hot path.
+ * <ul>
+ * <li>{@code mock.request.stage{stage}}: route lookup, rule evaluation, body
+ * render and log enqueue</li>
+ * <li>{@code mock.request{service,operation,rule,status}}: whole invocation</li>
+ * </ul>
+ * Per-invocation series are capped at max-series; later combinations are
+ * recorded under {@code other} so a large catalog cannot explode cardinality.
+ * When disabled, no clock is read and nothing is registered.
+ */
+@Component
+@Slf4j
+public class MockMetrics {
+
+    public enum Stage {
+        ROUTE, RULES, BODY, LOG
+    }
+
+    static final String NONE = "none";
+    static final String OTHER = "other";
+    static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxSeries;
+    private final Timer[] stages;
+    private final ConcurrentHashMap<Series, Timer> series = new ConcurrentHashMap<>();
+    private final Counter overflowed;
+
+    public MockMetrics(MeterRegistry meterRegistry,
+            @Value("${mock.metrics.enabled:true}") boolean enabled,
+            @Value("${mock.metrics.max-series:1000}") int maxSeries) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxSeries = maxSeries;
+        this.stages = new Timer[Stage.values().length];
+        if (enabled) {
+            for (Stage stage : Stage.values()) {
+                stages[stage.ordinal()] = Timer.builder("mock.request.stage")
+                        .description("Time spent in one stage of serving a mock request")
+                        .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                        .register(meterRegistry);
+            }
+            this.overflowed = Counter.builder("mock.request.series.overflow")
+                    .description("Invocations recorded under 'other' because max-series was reached")
+                    .register(meterRegistry);
+        } else {
+            this.overflowed = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the current time to measure from, or 0 when disabled
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records the time since {@code since} against a stage.
+     *
+     * @return the current time, so consecutive stages can be chained
+     */
+    public long stage(Stage stage, long since) {
+        if (!enabled) {
+            return 0L;
+        }
+        long now = System.nanoTime();
+        stages[stage.ordinal()].record(now - since, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    /**
+     * Records a whole invocation started at {@code start}.
+     *
+     * @param rule id of the matched rule, or null if none matched
+     */
+    public void request(String serviceKey, String operationKey, String rule, int status, long start) {
+        if (!enabled) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+        Series key = new Series(tag(serviceKey), tag(operationKey), rule != null ? rule : NONE, status);
+        Timer timer = series.get(key);
+        if (timer == null) {
+            timer = register(key);
+        }
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer register(Series key) {
+        if (series.size() >= maxSeries) {
+            overflowed.increment();
+            key = new Series(OTHER, OTHER, OTHER, key.status());
+        }
+        return series.computeIfAbsent(key, k -> Timer.builder("mock.request")
+                .description("Mock invocations by service, operation, matched rule and status")
+                .tag("service", k.service())
+                .tag("operation", k.operation())
+                .tag("rule", k.rule())
+                .tag("status", Integer.toString(k.status()))
+                .register(meterRegistry));
+    }
+
+    private static String tag(String value) {
+        return value != null ? value : UNKNOWN;
+    }
+
+    private record Series(String service, String operation, String rule, int status) {
+    }
+}
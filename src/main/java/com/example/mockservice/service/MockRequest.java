@@ -0,0 +1,118 @@
+package com.example.mockservice.service;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Incoming mock request with its body captured once as raw bytes. The body is
+ * decoded or scanned only when something asks for it.
+ */
+@Slf4j
+public final class MockRequest {
+
+    private static final byte[] NO_BODY = new byte[0];
+    private static final Function<String, String> NO_HEADERS = name -> null;
+
+    @Getter
+    private final String method;
+    @Getter
+    private final String path;
+    @Getter
+    private final Map<String, String[]> queryParams;
+    /** Header lookup by case-insensitive name; null if the header is absent. */
+    @Getter
+    private final Function<String, String> headers;
+    private final byte[] body;
+    private final Charset charset;
+
+    private String text;
+
+    public MockRequest(String method, String path, byte[] body, Charset charset, Map<String, String[]> queryParams) {
+        this(method, path, body, charset, queryParams, null);
+    }
+
+    public MockRequest(String method, String path, byte[] body, Charset charset, Map<String, String[]> queryParams,
+            Function<String, String> headers) {
+        this.method = method;
+        this.path = path;
+        this.body = body != null ? body : NO_BODY;
+        this.charset = charset != null ? charset : StandardCharsets.UTF_8;
+        this.queryParams = queryParams;
+        this.headers = headers != null ? headers : NO_HEADERS;
+    }
+
+    public static MockRequest of(String method, String path, String body, Map<String, String[]> queryParams) {
+        return new MockRequest(method, path, body != null ? body.getBytes(StandardCharsets.UTF_8) : null,
+                StandardCharsets.UTF_8, queryParams);
+    }
+
+    public boolean hasBody() {
+        return body.length > 0;
+    }
+
+    /**
+     * Scans the body bytes as a token stream and builds trees only for the
+     * named top-level fields; every other value is skipped without being
+     * materialized. The whole body is still tokenized, so invalid JSON is
+     * detected as before.
+     *
+     * @param names top-level fields to keep
+     * @return the named fields present in the body (none if the body is valid
+     *         JSON but not an object), or null if there is no body or it is
+     *         not valid JSON
+     */
+    public ObjectNode bodyFields(ObjectMapper objectMapper, Set<String> names) {
+        if (!hasBody()) {
+            return null;
+        }
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return null;
+            }
+            ObjectNode fields = objectMapper.createObjectNode();
+            if (token == JsonToken.START_OBJECT) {
+                String name;
+                while ((name = parser.nextName()) != null) {
+                    parser.nextToken();
+                    if (names.contains(name)) {
+                        fields.set(name, parser.readValueAsTree());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+            if (parser.nextToken() != null) {
+                log.warn("Failed to parse request body for rule matching: trailing content after the JSON value");
+                return null;
+            }
+            return fields;
+        } catch (JacksonException e) {
+            log.warn("Failed to parse request body for rule matching", e);
+            return null;
+        }
+    }
+
+    /**
+     * @return the body decoded with the request charset, for logging
+     */
+    public String bodyText() {
+        if (text == null) {
+            text = hasBody() ? new String(body, charset) : "";
+        }
+        return text;
+    }
+}
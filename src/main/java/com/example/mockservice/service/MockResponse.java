@@ -0,0 +1,15 @@
+package com.example.mockservice.service;
+
+import com.example.mockservice.catalog.LatencyProfile;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * A served mock response and how it should be delivered.
+ *
+ * @param latency   profile of the matched rule or the operation's
+ *                  configuration, or null to respond at once
+ * @param bandwidth bytes per second to stream the body at, or 0 to send it at
+ *                  once; see {@link ThrottledResponseWriter}
+ */
+public record MockResponse(ResponseEntity<Object> entity, LatencyProfile latency, int bandwidth) {
+}
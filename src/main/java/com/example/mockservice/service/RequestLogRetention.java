@@ -0,0 +1,95 @@
+package com.example.mockservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Keeps the in-memory request_log table bounded. Runs on a schedule and
+ * evicts the oldest rows beyond the configured row count and age, one small
+ * chunk per statement so concurrent batch inserts are never held up for long.
+ */
+@Component
+@Slf4j
+public class RequestLogRetention {
+
+    private static final String DELETE_OLDEST_SQL = "delete from request_log where id in "
+            + "(select id from request_log order by timestamp, id fetch first ? rows only)";
+
+    private static final String DELETE_EXPIRED_SQL = "delete from request_log where id in "
+            + "(select id from request_log where timestamp < ? order by timestamp, id fetch first ? rows only)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long maxRows;
+    private final Duration maxAge;
+    private final int chunkSize;
+    private final Counter evicted;
+
+    public RequestLogRetention(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+            @Value("${mock.request-log.retention.max-rows:100000}") long maxRows,
+            @Value("${mock.request-log.retention.max-age:24h}") Duration maxAge,
+            @Value("${mock.request-log.retention.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxRows = maxRows;
+        this.maxAge = maxAge;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.evicted = Counter.builder("mock.request.log.evicted")
+                .description("Request log rows removed by retention")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Applies the age limit first, then the row limit. A limit of zero disables
+     * it.
+     *
+     * @return number of rows removed
+     */
+    @Scheduled(initialDelayString = "${mock.request-log.retention.interval-ms:10000}",
+            fixedDelayString = "${mock.request-log.retention.interval-ms:10000}")
+    public long evict() {
+        long removed = 0;
+        try {
+            if (!maxAge.isZero() && !maxAge.isNegative()) {
+                Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(maxAge));
+                int deleted;
+                do {
+                    deleted = jdbcTemplate.update(DELETE_EXPIRED_SQL, cutoff, chunkSize);
+                    removed += deleted;
+                } while (deleted == chunkSize);
+            }
+
+            if (maxRows > 0) {
+                long excess = count() - maxRows;
+                while (excess > 0) {
+                    int deleted = jdbcTemplate.update(DELETE_OLDEST_SQL, (int) Math.min(chunkSize, excess));
+                    if (deleted == 0) {
+                        break;
+                    }
+                    removed += deleted;
+                    excess -= deleted;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Request log retention failed", e);
+        }
+
+        if (removed > 0) {
+            evicted.increment(removed);
+            log.debug("Evicted {} request log rows", removed);
+        }
+        return removed;
+    }
+
+    private long count() {
+        Long count = jdbcTemplate.queryForObject("select count(*) from request_log", Long.class);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.mockservice.service;
+
+import com.example.mockservice.domain.RequestLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Reads the request_log table without materializing it: keyset pages for the
+ * admin UI and a cursor-driven NDJSON export. Both walk the
+ * (timestamp, id) index newest first.
+ */
+@Service
+@RequiredArgsConstructor
+public class RequestLogService {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final String COLUMNS = "id, service_name, operation_name, timestamp, request_body, "
+            + "response_body, response_status";
+
+    private static final RowMapper<RequestLog> ROW_MAPPER = (rs, rowNum) -> {
+        RequestLog log = new RequestLog();
+        log.setId(rs.getString("id"));
+        log.setServiceName(rs.getString("service_name"));
+        log.setOperationName(rs.getString("operation_name"));
+        Timestamp timestamp = rs.getTimestamp("timestamp");
+        log.setTimestamp(timestamp != null ? timestamp.toLocalDateTime() : null);
+        log.setRequestBody(rs.getString("request_body"));
+        log.setResponseBody(rs.getString("response_body"));
+        log.setResponseStatus(rs.getInt("response_status"));
+        return log;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Filters for browsing and exporting logs; null fields are ignored.
+     *
+     * @param service   exact service name
+     * @param operation substring of the operation name, e.g. "GET /api"
+     * @param status    exact response status
+     * @param from      inclusive lower bound on the timestamp
+     * @param to        exclusive upper bound on the timestamp
+     */
+    public record Filter(String service, String operation, Integer status, LocalDateTime from, LocalDateTime to) {
+    }
+
+    /**
+     * One page of logs, newest first.
+     *
+     * @param next cursor for the following page, or null on the last page
+     */
+    public record Page(List<RequestLog> logs, String next) {
+    }
+
+    /**
+     * @param cursor {@link Page#next()} of the previous page, or null for the
+     *               first page
+     * @throws IllegalArgumentException if the cursor was not issued by this
+     *                                  service
+     */
+    public Page page(Filter filter, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("select ").append(COLUMNS).append(" from request_log");
+        where(sql, args, filter, cursor);
+        sql.append(" order by timestamp desc, id desc fetch first ? rows only");
+        args.add(limit + 1);
+
+        List<RequestLog> rows = jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+        String next = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            next = encodeCursor(rows.get(limit - 1));
+        }
+        return new Page(rows, next);
+    }
+
+    /**
+     * Streams matching logs as newline-delimited JSON, writing each row as it
+     * is read from the cursor.
+     */
+    public void exportNdjson(Filter filter, OutputStream out) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("select ").append(COLUMNS).append(" from request_log");
+        where(sql, args, filter, null);
+        sql.append(" order by timestamp desc, id desc");
+
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement(sql.toString());
+                statement.setFetchSize(500);
+                for (int i = 0; i < args.size(); i++) {
+                    statement.setObject(i + 1, args.get(i));
+                }
+                return statement;
+            }, rs -> {
+                RequestLog log = ROW_MAPPER.mapRow(rs, 0);
+                generator.writeStartObject();
+                generator.writeStringProperty("id", log.getId());
+                generator.writeStringProperty("timestamp",
+                        log.getTimestamp() != null ? log.getTimestamp().toString() : null);
+                generator.writeStringProperty("serviceName", log.getServiceName());
+                generator.writeStringProperty("operationName", log.getOperationName());
+                generator.writeNumberProperty("responseStatus", log.getResponseStatus());
+                generator.writeStringProperty("requestBody", log.getRequestBody());
+                generator.writeStringProperty("responseBody", log.getResponseBody());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            });
+        }
+    }
+
+    private static void where(StringBuilder sql, List<Object> args, Filter filter, String cursor) {
+        List<String> clauses = new ArrayList<>();
+        if (filter.service() != null && !filter.service().isBlank()) {
+            clauses.add("service_name = ?");
+            args.add(filter.service());
+        }
+        if (filter.operation() != null && !filter.operation().isBlank()) {
+            clauses.add("operation_name like ? escape '\\'");
+            args.add("%" + escapeLike(filter.operation()) + "%");
+        }
+        if (filter.status() != null) {
+            clauses.add("response_status = ?");
+            args.add(filter.status());
+        }
+        if (filter.from() != null) {
+            clauses.add("timestamp >= ?");
+            args.add(Timestamp.valueOf(filter.from()));
+        }
+        if (filter.to() != null) {
+            clauses.add("timestamp < ?");
+            args.add(Timestamp.valueOf(filter.to()));
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor position = decodeCursor(cursor);
+            clauses.add("(timestamp < ? or (timestamp = ? and id < ?))");
+            args.add(position.timestamp());
+            args.add(position.timestamp());
+            args.add(position.id());
+        }
+        if (!clauses.isEmpty()) {
+            sql.append(" where ").append(String.join(" and ", clauses));
+        }
+    }
+
+    // The filter is plain text, so % and _ must not act as wildcards
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static String encodeCursor(RequestLog last) {
+        String position = last.getTimestamp() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf('|');
+            return new Cursor(Timestamp.valueOf(LocalDateTime.parse(position.substring(0, separator))),
+                    position.substring(separator + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor, e);
+        }
+    }
+
+    private record Cursor(Timestamp timestamp, String id) {
+    }
+}
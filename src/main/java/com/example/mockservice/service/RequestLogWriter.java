@@ -0,0 +1,269 @@
+package com.example.mockservice.service;
+
+import com.example.mockservice.domain.RequestLog;
+import com.example.mockservice.util.RingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Takes {@link RequestLog} events off the request thread. Request threads hand
+ * events to a bounded {@link RingBuffer}; a single background writer drains it
+ * and persists them with JDBC batch inserts.
+ */
+@Component
+@Slf4j
+public class RequestLogWriter {
+
+    /**
+     * What a request thread does when the buffer is full.
+     */
+    public enum OverflowPolicy {
+        /** Discard the event. */
+        DROP,
+        /** Keep one in every sample-rate events once the buffer is half full; discard the rest. */
+        SAMPLE,
+        /** Wait up to block-timeout-ms for space, then discard. */
+        BLOCK
+    }
+
+    /**
+     * How bodies longer than max-body-bytes are stored.
+     */
+    public enum BodyOverflow {
+        /** Keep the first max-body-bytes bytes. */
+        TRUNCATE,
+        /** Replace the body with its SHA-256 digest and length. */
+        HASH
+    }
+
+    private static final String INSERT_SQL = "insert into request_log "
+            + "(id, service_name, operation_name, timestamp, request_body, response_body, response_status) "
+            + "values (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RingBuffer<RequestLog> buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final int sampleRate;
+    private final long blockTimeoutNanos;
+    private final int maxBodyBytes;
+    private final BodyOverflow bodyOverflow;
+
+    private final AtomicLong sampleTicket = new AtomicLong();
+    private final Counter droppedOverflow;
+    private final Counter droppedSampled;
+    private final Counter droppedFailed;
+    private final Counter written;
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    public RequestLogWriter(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+            @Value("${mock.request-log.capacity:8192}") int capacity,
+            @Value("${mock.request-log.batch-size:256}") int batchSize,
+            @Value("${mock.request-log.flush-interval-ms:100}") long flushIntervalMs,
+            @Value("${mock.request-log.overflow-policy:DROP}") OverflowPolicy overflowPolicy,
+            @Value("${mock.request-log.sample-rate:10}") int sampleRate,
+            @Value("${mock.request-log.block-timeout-ms:1000}") long blockTimeoutMs,
+            @Value("${mock.request-log.max-body-bytes:65536}") int maxBodyBytes,
+            @Value("${mock.request-log.body-overflow:TRUNCATE}") BodyOverflow bodyOverflow) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new RingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+        this.maxBodyBytes = maxBodyBytes;
+        this.bodyOverflow = bodyOverflow;
+
+        Gauge.builder("mock.request.log.queued", buffer, RingBuffer::size)
+                .description("Request log events waiting to be written")
+                .register(meterRegistry);
+        this.droppedOverflow = dropped(meterRegistry, "overflow");
+        this.droppedSampled = dropped(meterRegistry, "sampled");
+        this.droppedFailed = dropped(meterRegistry, "write-failed");
+        this.written = Counter.builder("mock.request.log.written")
+                .description("Request log events persisted")
+                .register(meterRegistry);
+    }
+
+    private static Counter dropped(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("mock.request.log.dropped")
+                .description("Request log events discarded")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::drainLoop, "request-log-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+    }
+
+    /**
+     * Hands an event to the background writer. Never touches the database on
+     * the calling thread.
+     *
+     * @return false if the event was discarded
+     */
+    public boolean submit(RequestLog requestLog) {
+        if (overflowPolicy == OverflowPolicy.SAMPLE && buffer.size() >= buffer.capacity() / 2
+                && sampleTicket.getAndIncrement() % sampleRate != 0) {
+            droppedSampled.increment();
+            return false;
+        }
+
+        boolean accepted = buffer.offer(requestLog);
+        if (!accepted && overflowPolicy == OverflowPolicy.BLOCK) {
+            accepted = offerBlocking(requestLog);
+        }
+        if (!accepted) {
+            droppedOverflow.increment();
+            return false;
+        }
+
+        if (buffer.size() >= batchSize) {
+            Thread thread = writerThread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+        return true;
+    }
+
+    // Parks instead of locking, so virtual threads never pin their carrier here
+    private boolean offerBlocking(RequestLog requestLog) {
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        long backoff = 1_000;
+        while (running && System.nanoTime() < deadline) {
+            Thread thread = writerThread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+            LockSupport.parkNanos(backoff);
+            if (buffer.offer(requestLog)) {
+                return true;
+            }
+            backoff = Math.min(backoff * 2, 1_000_000);
+        }
+        return false;
+    }
+
+    private void drainLoop() {
+        List<RequestLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (drainBatch(batch) < batchSize) {
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+        }
+        while (drainBatch(batch) > 0) {
+            // flush whatever is left on shutdown
+        }
+    }
+
+    private int drainBatch(List<RequestLog> batch) {
+        RequestLog next;
+        while (batch.size() < batchSize && (next = buffer.poll()) != null) {
+            batch.add(next);
+        }
+        int size = batch.size();
+        if (size > 0) {
+            write(batch);
+            batch.clear();
+        }
+        return size;
+    }
+
+    private void write(List<RequestLog> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, entry) -> {
+                ps.setString(1, entry.getId() != null ? entry.getId() : UUID.randomUUID().toString());
+                ps.setString(2, entry.getServiceName());
+                ps.setString(3, entry.getOperationName());
+                ps.setTimestamp(4, entry.getTimestamp() != null ? Timestamp.valueOf(entry.getTimestamp()) : null);
+                ps.setString(5, limitBody(entry.getRequestBody()));
+                ps.setString(6, limitBody(entry.getResponseBody()));
+                ps.setInt(7, entry.getResponseStatus());
+            });
+            written.increment(batch.size());
+        } catch (Exception e) {
+            droppedFailed.increment(batch.size());
+            log.error("Failed to write {} request log entries", batch.size(), e);
+        }
+    }
+
+    // Runs on the writer thread, so large bodies cost the request thread nothing
+    String limitBody(String body) {
+        if (body == null || maxBodyBytes <= 0 || body.length() <= maxBodyBytes / 3) {
+            return body;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= maxBodyBytes) {
+            return body;
+        }
+        if (bodyOverflow == BodyOverflow.HASH) {
+            return "sha256:" + HexFormat.of().formatHex(sha256(bytes)) + " (" + bytes.length + " bytes)";
+        }
+        int cut = maxBodyBytes;
+        // Do not split a multi-byte character
+        while (cut > 0 && (bytes[cut] & 0xC0) == 0x80) {
+            cut--;
+        }
+        return new String(bytes, 0, cut, StandardCharsets.UTF_8) + "...[truncated " + (bytes.length - cut)
+                + " bytes]";
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes everything still queued and stops the background writer.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = writerThread;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int queued() {
+        return buffer.size();
+    }
+}
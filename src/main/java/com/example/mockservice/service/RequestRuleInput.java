@@ -0,0 +1,55 @@
+package com.example.mockservice.service;
+
+import com.example.mockservice.catalog.RuleInput;
+import com.example.mockservice.util.PathVariables;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ObjectNode;
+import tools.jackson.databind.node.StringNode;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Rule input of one mock request as layers looked up in turn rather than one
+ * merged tree: path variables first, then the body fields the rules reference,
+ * or the query parameters when there is no JSON body. Only the values that are
+ * actually read are wrapped as nodes.
+ */
+final class RequestRuleInput implements RuleInput {
+
+    private final PathVariables pathVariables;
+    private final ObjectNode bodyFields;
+    private final Map<String, String[]> queryParams;
+    private final Function<String, String> headers;
+
+    /**
+     * @param bodyFields referenced fields of the JSON body, or null if the
+     *                   request has no JSON body
+     */
+    RequestRuleInput(PathVariables pathVariables, ObjectNode bodyFields, Map<String, String[]> queryParams,
+            Function<String, String> headers) {
+        this.pathVariables = pathVariables;
+        this.bodyFields = bodyFields;
+        this.queryParams = queryParams;
+        this.headers = headers;
+    }
+
+    @Override
+    public JsonNode get(String field) {
+        String variable = pathVariables.get(field);
+        if (variable != null) {
+            return StringNode.valueOf(variable);
+        }
+        if (bodyFields != null) {
+            return bodyFields.get(field);
+        }
+        // Take first value if multiple values exist
+        String[] values = queryParams != null ? queryParams.get(field) : null;
+        return values != null && values.length > 0 && values[0] != null ? StringNode.valueOf(values[0]) : null;
+    }
+
+    @Override
+    public String header(String name) {
+        return headers.apply(name);
+    }
+}
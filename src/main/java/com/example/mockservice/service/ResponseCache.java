@@ -0,0 +1,118 @@
+package com.example.mockservice.service;
+
+import com.example.mockservice.catalog.CachedBody;
+import com.example.mockservice.catalog.CatalogOperation;
+import com.example.mockservice.catalog.CompiledConfig;
+import com.example.mockservice.util.OutputSchema;
+import com.example.mockservice.util.PathVariables;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Memoizes bodies generated per request, for operations with no rule,
+ * configuration body or stored default body. Each operation opts in through
+ * its configuration's {@code cacheResponses}; operations that do not say
+ * follow {@code mock.response-cache.enabled}. Entries are keyed by the
+ * operation's compiled schema and the request's path variables and query
+ * parameters, bounded by total bytes (W-TinyLFU eviction) and expired after a
+ * TTL.
+ * <p>
+ * A catalog refresh compiles new schemas, so entries of the previous snapshot
+ * are never hit again and age out on their own. Statistics are published as
+ * {@code cache.*{cache=mock.response}}.
+ */
+@Component
+public class ResponseCache {
+
+    // Rough per-entry overhead of key, CachedBody and Caffeine node
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final boolean enabledByDefault;
+    private final Cache<Key, CachedBody> cache;
+
+    public ResponseCache(MeterRegistry meterRegistry,
+            @Value("${mock.response-cache.enabled:false}") boolean enabledByDefault,
+            @Value("${mock.response-cache.max-bytes:67108864}") long maxBytes,
+            @Value("${mock.response-cache.ttl:10m}") Duration ttl) {
+        this.enabledByDefault = enabledByDefault;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, CachedBody body) -> ENTRY_OVERHEAD + key.weight() + body.getContentLength()
+                        + body.toString().length() * 2)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "mock.response");
+    }
+
+    /**
+     * @return whether generated bodies of this operation are memoized
+     */
+    public boolean isEnabled(CatalogOperation op) {
+        CompiledConfig config = op.config();
+        return config != null && config.cacheResponses() != null ? config.cacheResponses() : enabledByDefault;
+    }
+
+    /**
+     * @return the cached body for this operation and request, generating and
+     *         caching it on a miss; if the operation does not cache, always
+     *         generates
+     */
+    public CachedBody get(CatalogOperation op, PathVariables pathVariables, Map<String, String[]> queryParams,
+            Supplier<CachedBody> generator) {
+        if (!isEnabled(op)) {
+            return generator.get();
+        }
+        return cache.get(new Key(op.outputSchema(), requestKey(pathVariables, queryParams)), k -> generator.get());
+    }
+
+    long estimatedSize() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Path variables in template order, then query parameters sorted by name
+     * (first value only), as alternating names and values. The body is not
+     * included.
+     */
+    private static List<String> requestKey(PathVariables pathVariables, Map<String, String[]> queryParams) {
+        int params = queryParams != null ? queryParams.size() : 0;
+        List<String> key = new ArrayList<>(2 * (pathVariables.size() + params));
+        pathVariables.forEach((name, value) -> {
+            key.add(name);
+            key.add(value);
+        });
+        if (params > 0) {
+            for (Map.Entry<String, String[]> entry : new TreeMap<>(queryParams).entrySet()) {
+                String[] values = entry.getValue();
+                key.add(entry.getKey());
+                key.add(values != null && values.length > 0 ? values[0] : null);
+            }
+        }
+        return key;
+    }
+
+    // Schema identity ties the entry to one operation in one catalog snapshot
+    private record Key(OutputSchema schema, List<String> request) {
+
+        int weight() {
+            int chars = 0;
+            for (String part : request) {
+                chars += part != null ? part.length() : 0;
+            }
+            return chars * 2;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.mockservice.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Outcome of one Flowable sync run.
+ *
+ * @param total           definitions listed by Flowable
+ * @param saved           definitions whose content changed and was persisted
+ * @param unchanged       definitions skipped because their deployment or
+ *                        content hash was already synced
+ * @param changedServices keys of the saved definitions, for a partial catalog
+ *                        refresh
+ * @param failures        definitions that could not be fetched or saved; the
+ *                        rest of the run carried on without them
+ */
+public record SyncReport(int total, int saved, int unchanged, Set<String> changedServices, List<Failure> failures,
+        Duration elapsed) {
+
+    public SyncReport {
+        changedServices = Set.copyOf(changedServices);
+        failures = List.copyOf(failures);
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    /**
+     * A definition that was skipped, with the last error seen for it.
+     */
+    public record Failure(String deploymentId, String resourceName, String reason) {
+
+        @Override
+        public String toString() {
+            return deploymentId + "/" + resourceName + ": " + reason;
+        }
+    }
+}
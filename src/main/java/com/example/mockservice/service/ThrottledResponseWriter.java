@@ -0,0 +1,199 @@
+package com.example.mockservice.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams mock response bodies at their operation's bandwidth, to reproduce
+ * slow services without holding a thread for the length of the transfer.
+ * <p>
+ * The response is taken over with a servlet {@link AsyncContext} and written
+ * with non-blocking I/O: each chunk is written when it is due and the
+ * container reports the socket writable, and between chunks the stream only
+ * waits as a task on the JDK's delay scheduler, which then dispatches the next
+ * write to a container thread. The body is sent chunked, without a
+ * Content-Length, and the response's latency profile delays the first chunk.
+ */
+@Component
+@Slf4j
+public class ThrottledResponseWriter {
+
+    // About ten chunks a second, however fast the stream
+    static final int CHUNKS_PER_SECOND = 10;
+
+    // Added to the expected transfer time before a stalled client is given up on
+    private static final long TIMEOUT_GRACE_MILLIS = 30_000;
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final LatencyInjector latencyInjector;
+    private final AtomicInteger active = new AtomicInteger();
+
+    public ThrottledResponseWriter(LatencyInjector latencyInjector, MeterRegistry meterRegistry) {
+        this.latencyInjector = latencyInjector;
+        Gauge.builder("mock.stream.active", active, AtomicInteger::get)
+                .description("Mock responses currently being streamed at a limited bandwidth")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts streaming the response and returns at once; the request stays
+     * open as an async context until the whole body has been written.
+     */
+    public void write(HttpServletRequest request, MockResponse response) throws IOException {
+        ResponseEntity<Object> entity = response.entity();
+        byte[] body = bytes(entity.getBody());
+        long firstByteDelay = latencyInjector.delayMillis(response);
+
+        AsyncContext context = request.startAsync();
+        context.setTimeout(firstByteDelay + body.length * 1000L / response.bandwidth() + TIMEOUT_GRACE_MILLIS);
+        HttpServletResponse servletResponse = (HttpServletResponse) context.getResponse();
+        servletResponse.setStatus(entity.getStatusCode().value());
+        entity.getHeaders().forEach((name, values) -> {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                values.forEach(value -> servletResponse.addHeader(name, value));
+            }
+        });
+
+        Stream stream = new Stream(context, servletResponse.getOutputStream(), body, response.bandwidth(),
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(firstByteDelay));
+        active.incrementAndGet();
+        context.addListener(stream);
+        // The container calls onWritePossible once the current dispatch has returned
+        stream.out.setWriteListener(stream);
+    }
+
+    int active() {
+        return active.get();
+    }
+
+    private static byte[] bytes(Object body) {
+        if (body == null) {
+            return new byte[0];
+        }
+        return body instanceof byte[] bytes ? bytes : body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return when the byte at {@code offset} is due, for a stream started at
+     *         {@code startNanos}
+     */
+    static long dueNanos(long startNanos, long offset, int bandwidth) {
+        return startNanos + offset * NANOS_PER_SECOND / bandwidth;
+    }
+
+    /**
+     * One body being streamed. Writes happen either in a container callback,
+     * after a write could not complete, or in a scheduled dispatch, after
+     * a chunk was not yet due; never both at once.
+     */
+    private final class Stream implements WriteListener, AsyncListener {
+
+        private final AsyncContext context;
+        private final ServletOutputStream out;
+        private final byte[] body;
+        private final int bandwidth;
+        private final int chunkSize;
+        private final long startNanos;
+        private final AtomicBoolean done = new AtomicBoolean();
+        private int written;
+
+        Stream(AsyncContext context, ServletOutputStream out, byte[] body, int bandwidth, long startNanos) {
+            this.context = context;
+            this.out = out;
+            this.body = body;
+            this.bandwidth = bandwidth;
+            this.chunkSize = Math.max(1, bandwidth / CHUNKS_PER_SECOND);
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            while (!done.get() && out.isReady()) {
+                if (written == body.length) {
+                    finish();
+                    return;
+                }
+                long wait = dueNanos(startNanos, written, bandwidth) - System.nanoTime();
+                if (wait > 0) {
+                    CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS, context::start)
+                            .execute(this::resume);
+                    return;
+                }
+                int length = Math.min(chunkSize, body.length - written);
+                out.write(body, written, length);
+                written += length;
+                // Send the chunk now rather than when the buffer fills; a flush that
+                // cannot complete leaves isReady false until the container calls back
+                if (out.isReady()) {
+                    out.flush();
+                }
+            }
+        }
+
+        private void resume() {
+            if (done.get()) {
+                return;
+            }
+            try {
+                onWritePossible();
+            } catch (IOException | RuntimeException e) {
+                onError(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            log.debug("Streaming a throttled response failed after {} of {} bytes: {}", written, body.length,
+                    t != null ? t.getMessage() : null);
+            finish();
+        }
+
+        private void finish() {
+            if (done.compareAndSet(false, true)) {
+                active.decrementAndGet();
+                context.complete();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            if (done.compareAndSet(false, true)) {
+                active.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            log.debug("Throttled response timed out after {} of {} bytes", written, body.length);
+            finish();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            onError(event.getThrowable());
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
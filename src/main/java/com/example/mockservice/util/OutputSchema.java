@@ -0,0 +1,172 @@
+package com.example.mockservice.util;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * An operation's outputParameters compiled once into field generators.
+ * Writing a response only draws random values and streams them to a
+ * {@link JsonGenerator}; the schema JSON is never parsed again.
+ * <p>
+ * Unseeded writes use the calling thread's {@link ThreadLocalRandom}. Seeded
+ * writes give every field its own {@link SplittableRandom} derived from the
+ * seed and the field name, so the output is a pure function of the seed and
+ * adding a field does not change the others.
+ */
+public final class OutputSchema {
+
+    /** Schema of an operation without output parameters: writes {}. */
+    public static final OutputSchema EMPTY = new OutputSchema(new Field[0]);
+
+    /** Written when the output parameters cannot be compiled. */
+    static final OutputSchema FAILED = new OutputSchema(new Field[] { new Field(new SerializedString("error"),
+            Seeds.hash("error"), (gen, random, seeded) -> gen.writeString("Failed to generate data")) });
+
+    private static final String[] WORDS = { "Test", "Mock", "Data", "Flowable", "Service", "Demo" };
+
+    // Seeded dates fall in 2020-2029 so they do not depend on the clock
+    private static final LocalDate SEEDED_EPOCH = LocalDate.of(2020, 1, 1);
+
+    private static final FieldGenerator STRING = (gen, random, seeded) -> gen
+            .writeString(WORDS[random.nextInt(WORDS.length)] + "-" + random.nextInt(1000));
+    private static final FieldGenerator INTEGER = (gen, random, seeded) -> gen.writeNumber(random.nextInt(100));
+    private static final FieldGenerator BOOLEAN = (gen, random, seeded) -> gen.writeBoolean(random.nextBoolean());
+    private static final FieldGenerator DATE = (gen, random, seeded) -> gen
+            .writeString(seeded ? SEEDED_EPOCH.plusDays(random.nextInt(3653)).toString() : Today.get());
+    private static final FieldGenerator OTHER = (gen, random, seeded) -> gen.writeString("mock-value");
+
+    private final Field[] fields;
+
+    private OutputSchema(Field[] fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Compiles an outputParameters array such as
+     * [{"name":"age","type":"integer"}]. Types are matched case-insensitively;
+     * unknown types produce "mock-value".
+     *
+     * @return the compiled schema; {@link #EMPTY} if there is nothing to
+     *         generate, or a schema that writes an error object if the JSON is
+     *         invalid
+     */
+    public static OutputSchema compile(String outputParamsJson, ObjectMapper objectMapper) {
+        if (outputParamsJson == null || outputParamsJson.isEmpty()) {
+            return EMPTY;
+        }
+        try {
+            JsonNode params = objectMapper.readTree(outputParamsJson);
+            if (params == null || !params.isArray()) {
+                return EMPTY;
+            }
+
+            // A repeated name keeps its first position and its last type, as ObjectNode.put did
+            Map<String, FieldGenerator> byName = new LinkedHashMap<>();
+            for (JsonNode param : params) {
+                String name = param.get("name").asString();
+                String type = param.has("type") ? param.get("type").asString() : "string";
+                byName.put(name, generatorFor(type));
+            }
+
+            Field[] fields = new Field[byName.size()];
+            int i = 0;
+            for (Map.Entry<String, FieldGenerator> entry : byName.entrySet()) {
+                fields[i++] = new Field(new SerializedString(entry.getKey()), Seeds.hash(entry.getKey()),
+                        entry.getValue());
+            }
+            return new OutputSchema(fields);
+        } catch (Exception e) {
+            return FAILED;
+        }
+    }
+
+    private static FieldGenerator generatorFor(String type) {
+        return switch (type.toLowerCase(Locale.ROOT)) {
+            case "string" -> STRING;
+            case "integer" -> INTEGER;
+            case "boolean" -> BOOLEAN;
+            case "date" -> DATE;
+            default -> OTHER;
+        };
+    }
+
+    /**
+     * Writes one random object for this schema.
+     */
+    public void write(JsonGenerator gen) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        gen.writeStartObject();
+        for (Field field : fields) {
+            gen.writeName(field.name());
+            field.value().write(gen, random, false);
+        }
+        gen.writeEndObject();
+    }
+
+    /**
+     * Writes the object determined by {@code seed}: the same seed always
+     * produces the same bytes.
+     */
+    public void write(JsonGenerator gen, long seed) {
+        gen.writeStartObject();
+        for (Field field : fields) {
+            gen.writeName(field.name());
+            field.value().write(gen, new SplittableRandom(Seeds.mix(seed ^ field.nameHash())), true);
+        }
+        gen.writeEndObject();
+    }
+
+    public int size() {
+        return fields.length;
+    }
+
+    /**
+     * @return true if the output parameters could not be parsed
+     */
+    public boolean isFailed() {
+        return this == FAILED;
+    }
+
+    @FunctionalInterface
+    private interface FieldGenerator {
+        void write(JsonGenerator gen, RandomGenerator random, boolean seeded);
+    }
+
+    private record Field(SerializableString name, long nameHash, FieldGenerator value) {
+    }
+
+    /** Today's ISO date, formatted once per day rather than per field. */
+    private static final class Today {
+
+        private static volatile Today current = new Today(LocalDate.now());
+
+        private final long epochDay;
+        private final String text;
+
+        private Today(LocalDate date) {
+            this.epochDay = date.toEpochDay();
+            this.text = date.toString();
+        }
+
+        static String get() {
+            LocalDate now = LocalDate.now();
+            Today today = current;
+            if (today.epochDay != now.toEpochDay()) {
+                today = new Today(now);
+                current = today;
+            }
+            return today.text;
+        }
+    }
+}
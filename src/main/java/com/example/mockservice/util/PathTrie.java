@@ -0,0 +1,255 @@
+package com.example.mockservice.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Segment trie indexing URL templates with ${variableName} placeholders.
+ * Templates are compiled once on insert; a lookup walks the incoming path
+ * segment by segment, so its cost depends on the number of segments rather
+ * than the number of templates.
+ * <p>
+ * At every segment a literal child is preferred over a partial pattern
+ * (e.g. emp-${id}), which is preferred over a whole-segment variable.
+ * Templates with the same shape end up on the same leaf and are returned
+ * together in insertion order.
+ * <p>
+ * Not thread-safe for writes; build it fully, then share it read-only.
+ */
+public final class PathTrie<T> {
+
+    private static final Pattern PATH_VARIABLE_PATTERN = Pattern.compile("\\$\\{([^}]+)\\}");
+
+    private static final String[] NO_CAPTURES = new String[0];
+
+    private final Node<T> root = new Node<>();
+    private int size;
+    private int maxCaptures;
+
+    /**
+     * A template stored on a leaf together with its variable names in capture
+     * order.
+     */
+    public static final class Route<T> {
+        private final String template;
+        private final String[] variableNames;
+        private final T value;
+
+        private Route(String template, String[] variableNames, T value) {
+            this.template = template;
+            this.variableNames = variableNames;
+            this.value = value;
+        }
+
+        public String getTemplate() {
+            return template;
+        }
+
+        public T getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * Result of a lookup: every route on the matched leaf and the values
+     * captured along the way.
+     */
+    public static final class Match<T> {
+        private final List<Route<T>> routes;
+        private final String[] captures;
+
+        private Match(List<Route<T>> routes, String[] captures) {
+            this.routes = routes;
+            this.captures = captures;
+        }
+
+        public List<Route<T>> getRoutes() {
+            return routes;
+        }
+
+        public PathVariables variables(Route<T> route) {
+            if (route.variableNames.length == 0) {
+                return PathVariables.EMPTY;
+            }
+            return new PathVariables(route.variableNames, captures);
+        }
+    }
+
+    private static final class Node<T> {
+        private Map<String, Node<T>> literals;
+        private List<PatternChild<T>> patterns;
+        private Node<T> variable;
+        private List<Route<T>> routes;
+        private int captureCount;
+    }
+
+    private record PatternChild<T>(String source, Pattern pattern, int groups, Node<T> node) {
+    }
+
+    /**
+     * Indexes a template. Query strings in the template are ignored.
+     *
+     * @param template URL template, e.g. /api/employee/${employeeId}
+     * @param value    value returned when the template matches
+     */
+    public void insert(String template, T value) {
+        String pathOnly = stripQuery(template);
+        List<String> variableNames = new ArrayList<>();
+        Node<T> node = root;
+
+        int start = 0;
+        while (true) {
+            int end = pathOnly.indexOf('/', start);
+            String segment = end < 0 ? pathOnly.substring(start) : pathOnly.substring(start, end);
+            node = child(node, segment, variableNames);
+            if (end < 0) {
+                break;
+            }
+            start = end + 1;
+        }
+
+        if (node.routes == null) {
+            node.routes = new ArrayList<>(1);
+        }
+        node.captureCount = variableNames.size();
+        maxCaptures = Math.max(maxCaptures, node.captureCount);
+        node.routes.add(new Route<>(template, variableNames.toArray(new String[0]), value));
+        size++;
+    }
+
+    private Node<T> child(Node<T> node, String segment, List<String> variableNames) {
+        Matcher matcher = PATH_VARIABLE_PATTERN.matcher(segment);
+        if (!matcher.find()) {
+            if (node.literals == null) {
+                node.literals = new HashMap<>();
+            }
+            return node.literals.computeIfAbsent(segment, s -> new Node<>());
+        }
+
+        if (matcher.start() == 0 && matcher.end() == segment.length()) {
+            variableNames.add(matcher.group(1));
+            if (node.variable == null) {
+                node.variable = new Node<>();
+            }
+            return node.variable;
+        }
+
+        // Partial segment such as emp-${id}.json: compile it to a regex once
+        StringBuilder regex = new StringBuilder();
+        int lastEnd = 0;
+        int groups = 0;
+        do {
+            regex.append(Pattern.quote(segment.substring(lastEnd, matcher.start()))).append("([^/]+)");
+            variableNames.add(matcher.group(1));
+            lastEnd = matcher.end();
+            groups++;
+        } while (matcher.find());
+        if (lastEnd < segment.length()) {
+            regex.append(Pattern.quote(segment.substring(lastEnd)));
+        }
+        String source = regex.toString();
+
+        if (node.patterns == null) {
+            node.patterns = new ArrayList<>(1);
+        }
+        for (PatternChild<T> existing : node.patterns) {
+            if (existing.source().equals(source)) {
+                return existing.node();
+            }
+        }
+        PatternChild<T> created = new PatternChild<>(source, Pattern.compile(source), groups, new Node<>());
+        node.patterns.add(created);
+        return created.node();
+    }
+
+    /**
+     * Finds the most specific templates matching the given path.
+     *
+     * @param actualPath The actual incoming path (query string is ignored)
+     * @return the match, or null if no template matches
+     */
+    public Match<T> find(String actualPath) {
+        if (actualPath == null) {
+            return null;
+        }
+        int length = actualPath.indexOf('?');
+        if (length < 0) {
+            length = actualPath.length();
+        }
+        String[] captures = maxCaptures == 0 ? NO_CAPTURES : new String[maxCaptures];
+        Node<T> leaf = walk(root, actualPath, 0, length, 0, captures);
+        if (leaf == null) {
+            return null;
+        }
+        if (captures.length != leaf.captureCount) {
+            String[] trimmed = new String[leaf.captureCount];
+            System.arraycopy(captures, 0, trimmed, 0, leaf.captureCount);
+            captures = trimmed;
+        }
+        return new Match<>(leaf.routes, captures);
+    }
+
+    private Node<T> walk(Node<T> node, String path, int start, int length, int captured, String[] captures) {
+        int end = path.indexOf('/', start);
+        if (end < 0 || end > length) {
+            end = length;
+        }
+        boolean last = end == length;
+
+        if (node.literals != null) {
+            Node<T> next = node.literals.get(path.substring(start, end));
+            if (next != null) {
+                Node<T> leaf = last ? leafOrNull(next) : walk(next, path, end + 1, length, captured, captures);
+                if (leaf != null) {
+                    return leaf;
+                }
+            }
+        }
+
+        if (end == start) {
+            // Variables never match an empty segment
+            return null;
+        }
+
+        if (node.patterns != null) {
+            for (PatternChild<T> child : node.patterns) {
+                Matcher matcher = child.pattern().matcher(path).region(start, end);
+                if (!matcher.matches()) {
+                    continue;
+                }
+                for (int g = 1; g <= child.groups(); g++) {
+                    captures[captured + g - 1] = matcher.group(g);
+                }
+                Node<T> leaf = last ? leafOrNull(child.node())
+                        : walk(child.node(), path, end + 1, length, captured + child.groups(), captures);
+                if (leaf != null) {
+                    return leaf;
+                }
+            }
+        }
+
+        if (node.variable != null) {
+            captures[captured] = path.substring(start, end);
+            return last ? leafOrNull(node.variable)
+                    : walk(node.variable, path, end + 1, length, captured + 1, captures);
+        }
+        return null;
+    }
+
+    private Node<T> leafOrNull(Node<T> node) {
+        return node.routes != null ? node : null;
+    }
+
+    private static String stripQuery(String template) {
+        int query = template.indexOf('?');
+        return query < 0 ? template : template.substring(0, query);
+    }
+
+    public int size() {
+        return size;
+    }
+}
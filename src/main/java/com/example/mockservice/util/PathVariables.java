@@ -0,0 +1,74 @@
+package com.example.mockservice.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Path variables captured by {@link PathTrie}, backed by the template's
+ * variable names and the captured values instead of a per-request map.
+ */
+public final class PathVariables {
+
+    public static final PathVariables EMPTY = new PathVariables(new String[0], new String[0]);
+
+    private final String[] names;
+    private final String[] values;
+
+    PathVariables(String[] names, String[] values) {
+        this.names = names;
+        this.values = values;
+    }
+
+    /**
+     * @param name variable name as written in the template, e.g. employeeId
+     * @return the captured value, or null if the template has no such variable
+     */
+    public String get(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+
+    /** Name of the i-th variable, in template order. */
+    public String name(int i) {
+        return names[i];
+    }
+
+    /** Value of the i-th variable, in template order. */
+    public String value(int i) {
+        return values[i];
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public boolean isEmpty() {
+        return names.length == 0;
+    }
+
+    public void forEach(BiConsumer<String, String> action) {
+        for (int i = 0; i < names.length; i++) {
+            action.accept(names[i], values[i]);
+        }
+    }
+
+    public Map<String, String> toMap() {
+        if (isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> map = new LinkedHashMap<>();
+        forEach(map::put);
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
@@ -1,64 +1,105 @@
 package com.example.mockservice.util;
 
+import tools.jackson.core.JsonGenerator;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
-import tools.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDate;
-import java.util.Random;
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
 
 @Component
 public class RandomDataGenerator {
 
+    /**
+     * How generated values are drawn.
+     */
+    public enum Mode {
+        /** Fresh random values on every call. */
+        RANDOM,
+        /** Values are a pure function of mock.random.seed and the request key. */
+        SEEDED
+    }
+
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final Random random = new Random();
+    private final Mode mode;
+    private final long seed;
 
-    public JsonNode generateReflectedOutput(String outputParamsJson) {
-        if (outputParamsJson == null || outputParamsJson.isEmpty()) {
-            return objectMapper.createObjectNode();
-        }
+    public RandomDataGenerator() {
+        this(Mode.RANDOM, 0L);
+    }
 
-        try {
-            JsonNode params = objectMapper.readTree(outputParamsJson);
-            ObjectNode output = objectMapper.createObjectNode();
+    @Autowired
+    public RandomDataGenerator(@Value("${mock.random.mode:RANDOM}") Mode mode,
+            @Value("${mock.random.seed:0}") long seed) {
+        this.mode = mode;
+        this.seed = seed;
+    }
 
-            if (params.isArray()) {
-                for (JsonNode param : params) {
-                    processParam(output, param);
-                }
-            }
-            return output;
-        } catch (Exception e) {
-            return objectMapper.createObjectNode().put("error", "Failed to generate data");
-        }
+    public boolean isSeeded() {
+        return mode == Mode.SEEDED;
     }
 
-    private void processParam(ObjectNode output, JsonNode param) {
-        String name = param.get("name").asString();
-        String type = param.has("type") ? param.get("type").asString() : "string";
+    /**
+     * Compiles output parameters once so {@link #generate(OutputSchema)} can be
+     * called per request.
+     */
+    public OutputSchema compile(String outputParamsJson) {
+        return OutputSchema.compile(outputParamsJson, objectMapper);
+    }
 
-        // Simple random generation based on type
-        switch (type.toLowerCase()) {
-            case "string":
-                output.put(name, generateRandomString());
-                break;
-            case "integer":
-                output.put(name, random.nextInt(100));
-                break;
-            case "boolean":
-                output.put(name, random.nextBoolean());
-                break;
-            case "date":
-                output.put(name, LocalDate.now().toString());
-                break;
-            default:
-                output.put(name, "mock-value");
+    /**
+     * @return a random JSON object for the schema, as UTF-8 bytes
+     */
+    public byte[] generate(OutputSchema schema) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 + schema.size() * 24);
+        try (JsonGenerator gen = objectMapper.createGenerator(out)) {
+            schema.write(gen);
         }
+        return out.toByteArray();
     }
 
-    private String generateRandomString() {
-        String[] words = { "Test", "Mock", "Data", "Flowable", "Service", "Demo" };
-        return words[random.nextInt(words.length)] + "-" + random.nextInt(1000);
+    /**
+     * @param requestSeed from {@link #requestSeed}; the same value always
+     *                    produces the same bytes
+     * @return the JSON object determined by the seed, as UTF-8 bytes
+     */
+    public byte[] generate(OutputSchema schema, long requestSeed) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 + schema.size() * 24);
+        try (JsonGenerator gen = objectMapper.createGenerator(out)) {
+            schema.write(gen, requestSeed);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Seed for one request: mock.random.seed combined with the service and
+     * operation keys, the path variables and the query parameters (sorted by
+     * name, first value only). Keys rather than database ids are used so the
+     * seed survives a restart; the body is not part of it.
+     */
+    public long requestSeed(String serviceKey, String operationKey, PathVariables pathVariables,
+            Map<String, String[]> queryParams) {
+        long h = Seeds.hash(Seeds.hash(Seeds.hash(Long.toString(seed)), serviceKey), operationKey);
+        return Seeds.mix(Seeds.hash(h, pathVariables, queryParams));
+    }
+
+    public JsonNode generateReflectedOutput(String outputParamsJson) {
+        return objectMapper.readTree(generate(compile(outputParamsJson)));
+    }
+
+    /**
+     * Like {@link #generateReflectedOutput(String)}, but in SEEDED mode the
+     * output is determined by mock.random.seed and {@code key}, so re-syncing
+     * the same operation reproduces the same body.
+     */
+    public JsonNode generateReflectedOutput(String outputParamsJson, String key) {
+        if (!isSeeded()) {
+            return generateReflectedOutput(outputParamsJson);
+        }
+        long keySeed = Seeds.mix(Seeds.hash(Seeds.hash(Long.toString(seed)), key));
+        return objectMapper.readTree(generate(compile(outputParamsJson), keySeed));
     }
 }
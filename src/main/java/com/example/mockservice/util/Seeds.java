@@ -0,0 +1,61 @@
+package com.example.mockservice.util;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 64-bit hashing for deterministic generation: FNV-1a to fold strings into a
+ * seed and the SplittableRandom finalizer to spread it.
+ */
+public final class Seeds {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private Seeds() {
+    }
+
+    /**
+     * Folds a string into a running hash. Null and empty strings fold
+     * differently, and a separator is folded in so ("ab","c") differs from
+     * ("a","bc").
+     */
+    public static long hash(long h, String value) {
+        if (value == null) {
+            return (h ^ 0xff) * FNV_PRIME;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return (h ^ 0xfe) * FNV_PRIME;
+    }
+
+    public static long hash(String value) {
+        return hash(FNV_OFFSET, value);
+    }
+
+    /**
+     * Folds the parts of a request that identify its generated response: path
+     * variables in template order, then query parameters sorted by name (first
+     * value only). The body is not included.
+     */
+    public static long hash(long h, PathVariables pathVariables, Map<String, String[]> queryParams) {
+        for (int i = 0; i < pathVariables.size(); i++) {
+            h = hash(hash(h, pathVariables.name(i)), pathVariables.value(i));
+        }
+        if (queryParams != null && !queryParams.isEmpty()) {
+            for (Map.Entry<String, String[]> entry : new TreeMap<>(queryParams).entrySet()) {
+                String[] values = entry.getValue();
+                h = hash(hash(h, entry.getKey()), values != null && values.length > 0 ? values[0] : null);
+            }
+        }
+        return h;
+    }
+
+    /** Stafford variant 13, as used by SplittableRandom. */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,21 +1,30 @@
 package com.example.mockservice.web;
 
+import com.example.mockservice.catalog.LatencyProfile;
+import com.example.mockservice.catalog.MockCatalogService;
 import com.example.mockservice.domain.MockConfiguration;
 import com.example.mockservice.domain.ServiceDefinition;
 import com.example.mockservice.domain.ServiceOperation;
 import com.example.mockservice.repository.MockConfigurationRepository;
-import com.example.mockservice.repository.RequestLogRepository;
 import com.example.mockservice.repository.ServiceDefinitionRepository;
 import com.example.mockservice.repository.ServiceOperationRepository;
-import com.example.mockservice.service.FlowableClientService;
+import com.example.mockservice.service.FlowableSyncJob;
+import com.example.mockservice.service.RequestLogService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import tools.jackson.databind.ObjectMapper;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.Set;
 
 import com.example.mockservice.domain.MockRule;
 import com.example.mockservice.repository.MockRuleRepository;
@@ -25,12 +34,14 @@ import com.example.mockservice.repository.MockRuleRepository;
 @lombok.extern.slf4j.Slf4j
 public class AdminController {
 
-    private final FlowableClientService flowableClientService;
+    private final FlowableSyncJob flowableSyncJob;
+    private final MockCatalogService mockCatalogService;
     private final com.example.mockservice.service.MockExecutionService mockExecutionService;
     private final ServiceDefinitionRepository serviceDefinitionRepository;
     private final ServiceOperationRepository serviceOperationRepository;
     private final MockConfigurationRepository mockConfigurationRepository;
-    private final RequestLogRepository requestLogRepository;
+    private final RequestLogService requestLogService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/")
     public String index() {
@@ -40,20 +51,30 @@ public class AdminController {
     @GetMapping("/services")
     public String viewServices(Model model) {
         model.addAttribute("services", serviceDefinitionRepository.findAll());
+        model.addAttribute("sync", flowableSyncJob.status());
+        model.addAttribute("catalogProblems", mockCatalogService.problems());
         return "services";
     }
 
     @PostMapping("/sync")
-    public String syncServices(RedirectAttributes redirectAttributes) {
-        try {
-            flowableClientService.syncDefinitions();
-            redirectAttributes.addFlashAttribute("message", "Services synced successfully!");
-        } catch (Exception e) {
-            redirectAttributes.addFlashAttribute("error", "Sync failed: " + e.getMessage());
+    public String syncServices(@RequestParam(defaultValue = "false") boolean full,
+            RedirectAttributes redirectAttributes) {
+        if (flowableSyncJob.isRunning()) {
+            redirectAttributes.addFlashAttribute("error", "A sync is already running");
+        } else {
+            flowableSyncJob.trigger(full);
+            redirectAttributes.addFlashAttribute("message",
+                    "Sync started in the background; mocks keep serving the current definitions until it finishes");
         }
         return "redirect:/services";
     }
 
+    @GetMapping("/sync/status")
+    @ResponseBody
+    public FlowableSyncJob.Status syncStatus() {
+        return flowableSyncJob.status();
+    }
+
     @GetMapping("/services/{serviceId}")
     public String viewServiceOperations(@PathVariable String serviceId, Model model) {
         Optional<ServiceDefinition> service = serviceDefinitionRepository.findById(serviceId);
@@ -88,43 +109,99 @@ public class AdminController {
 
         log.info("Saving config for operationId: {}. received status: {}", operationId, config.getHttpStatus());
 
+        // Find service ID to redirect back
+        ServiceOperation op = serviceOperationRepository.findById(operationId).orElseThrow();
+        String serviceId = op.getServiceDefinition().getId();
+
+        String latency = config.getLatency() != null && !config.getLatency().isBlank() ? config.getLatency() : null;
+        try {
+            LatencyProfile.compile(latency, objectMapper);
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("error", "Configuration not saved: " + e.getMessage());
+            return "redirect:/services/" + serviceId;
+        }
+        if (config.getBandwidth() != null && config.getBandwidth() <= 0) {
+            redirectAttributes.addFlashAttribute("error", "Configuration not saved: bandwidth must be positive");
+            return "redirect:/services/" + serviceId;
+        }
+
         MockConfiguration existing = mockConfigurationRepository.findByOperationId(operationId)
                 .orElse(new MockConfiguration());
 
         existing.setOperationId(operationId);
         existing.setHttpStatus(config.getHttpStatus());
         existing.setCustomResponseBody(config.getCustomResponseBody());
+        existing.setLatency(latency);
+        existing.setBandwidth(config.getBandwidth());
+        existing.setCacheResponses(config.getCacheResponses());
 
         MockConfiguration saved = mockConfigurationRepository.save(existing);
+        mockCatalogService.refresh(Set.of(op.getServiceDefinition().getKey()));
         log.info("Saved config: id={}, opId={}, status={}", saved.getId(), saved.getOperationId(),
                 saved.getHttpStatus());
 
         redirectAttributes.addFlashAttribute("message", "Configuration saved!");
 
-        // Find service ID to redirect back
-        ServiceOperation op = serviceOperationRepository.findById(operationId).orElseThrow();
-        String serviceId = op.getServiceDefinition().getId();
-
         return "redirect:/services/" + serviceId;
     }
 
     @PostMapping("/operations/{id}/rules")
-    public String addRule(@PathVariable String id, @ModelAttribute MockRule rule) {
-        mockExecutionService.addRule(id, rule);
+    public String addRule(@PathVariable String id, @ModelAttribute MockRule rule,
+            RedirectAttributes redirectAttributes) {
         // Need serviceId for redirect. Could be returned by addRule or fetched.
         ServiceOperation op = serviceOperationRepository.findById(id).orElseThrow();
+        try {
+            mockExecutionService.addRule(id, rule);
+            mockCatalogService.refresh(Set.of(op.getServiceDefinition().getKey()));
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("error", "Rule not saved: " + e.getMessage());
+        }
         return "redirect:/services/" + op.getServiceDefinition().getId();
     }
 
     @GetMapping("/rules/{id}/delete")
     public String deleteRule(@PathVariable String id) {
         String serviceId = mockExecutionService.deleteRule(id);
+        serviceDefinitionRepository.findById(serviceId)
+                .ifPresent(service -> mockCatalogService.refresh(Set.of(service.getKey())));
         return "redirect:/services/" + serviceId;
     }
 
     @GetMapping("/logs")
-    public String viewLogs(Model model) {
-        model.addAttribute("logs", requestLogRepository.findAll(Sort.by(Sort.Direction.DESC, "timestamp")));
+    public String viewLogs(@RequestParam(required = false) String service,
+            @RequestParam(required = false) String operation,
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "50") int size,
+            Model model) {
+        RequestLogService.Filter filter = new RequestLogService.Filter(service, operation, status, from, to);
+        RequestLogService.Page page;
+        try {
+            page = requestLogService.page(filter, before, size);
+        } catch (IllegalArgumentException e) {
+            // A stale or edited cursor: start over from the newest logs
+            model.addAttribute("error", "Invalid page link; showing the newest logs");
+            page = requestLogService.page(filter, null, size);
+        }
+        model.addAttribute("logs", page.logs());
+        model.addAttribute("next", page.next());
+        model.addAttribute("filter", filter);
+        model.addAttribute("size", size);
         return "logs";
     }
+
+    @GetMapping(value = "/logs/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportLogs(@RequestParam(required = false) String service,
+            @RequestParam(required = false) String operation,
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        RequestLogService.Filter filter = new RequestLogService.Filter(service, operation, status, from, to);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=request-logs.ndjson")
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(out -> requestLogService.exportNdjson(filter, out));
+    }
 }
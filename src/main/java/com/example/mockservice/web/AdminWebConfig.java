@@ -0,0 +1,31 @@
+package com.example.mockservice.web;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Keeps an EntityManager open while admin pages render their lazy
+ * associations. Open-in-view is disabled globally so mock requests, which are
+ * served from the in-memory catalog, never open a persistence context.
+ */
+@Configuration
+public class AdminWebConfig implements WebMvcConfigurer {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public AdminWebConfig(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+        interceptor.setEntityManagerFactory(entityManagerFactory);
+        registry.addWebRequestInterceptor(interceptor)
+                .addPathPatterns("/", "/services", "/services/**", "/operation/**", "/operations/**", "/rules/**",
+                        "/sync", "/export", "/import");
+    }
+}
@@ -1,39 +1,91 @@
 package com.example.mockservice.web;
 
+import com.example.mockservice.service.LatencyInjector;
 import com.example.mockservice.service.MockExecutionService;
+import com.example.mockservice.service.MockRequest;
+import com.example.mockservice.service.MockResponse;
+import com.example.mockservice.service.ThrottledResponseWriter;
 import jakarta.servlet.http.HttpServletRequest;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
-import java.util.stream.Collectors;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 @RestController
 @RequestMapping("/{serviceKey}")
-@RequiredArgsConstructor
 @Slf4j
 public class DynamicMockController {
 
     private final MockExecutionService mockExecutionService;
+    private final LatencyInjector latencyInjector;
+    private final ThrottledResponseWriter throttledResponseWriter;
+    private final int maxBodyBytes;
+
+    public DynamicMockController(MockExecutionService mockExecutionService, LatencyInjector latencyInjector,
+            ThrottledResponseWriter throttledResponseWriter,
+            @Value("${mock.request.max-body-bytes:1048576}") int maxBodyBytes) {
+        this.mockExecutionService = mockExecutionService;
+        this.latencyInjector = latencyInjector;
+        this.throttledResponseWriter = throttledResponseWriter;
+        this.maxBodyBytes = maxBodyBytes;
+    }
 
     @RequestMapping(value = "/**", method = { RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT,
             RequestMethod.DELETE, RequestMethod.PATCH })
-    public ResponseEntity<Object> handleMockRequest(HttpServletRequest request) throws IOException {
+    public Object handleMockRequest(HttpServletRequest request) throws IOException {
 
         String method = request.getMethod();
         String fullPath = request.getRequestURI();
 
-        // Use fullPath directly as it should match the operation URL (e.g. /data)
-        String body = request.getReader().lines().collect(Collectors.joining(System.lineSeparator()));
+        // Capture the raw body once; it is decoded or parsed only if needed
+        long declaredLength = request.getContentLengthLong();
+        if (declaredLength > maxBodyBytes) {
+            return bodyTooLarge();
+        }
+        byte[] body;
+        try (InputStream in = request.getInputStream()) {
+            // One byte past the limit tells an oversized body apart; clamped so MAX_VALUE does not overflow
+            body = in.readNBytes(Math.min(maxBodyBytes, Integer.MAX_VALUE - 1) + 1);
+        }
+        if (body.length > maxBodyBytes) {
+            return bodyTooLarge();
+        }
 
         // Extract query parameters for rule matching
         java.util.Map<String, String[]> queryParams = request.getParameterMap();
 
         log.debug("Received mock request for method: {}, path: {}, params: {}", method, fullPath, queryParams);
 
-        return mockExecutionService.executeMock(method, fullPath, body, queryParams);
+        MockResponse response = mockExecutionService.serve(
+                new MockRequest(method, fullPath, body, charset(request), queryParams, request::getHeader));
+
+        // Throttled bodies are streamed by the writer itself, with the latency as first-byte delay
+        if (response.bandwidth() > 0) {
+            throttledResponseWriter.write(request, response);
+            return null;
+        }
+        // Delayed responses come back as a future and are written asynchronously
+        return latencyInjector.delay(response);
+    }
+
+    private ResponseEntity<Object> bodyTooLarge() {
+        return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE)
+                .body("Request body exceeds " + maxBodyBytes + " bytes");
+    }
+
+    private static Charset charset(HttpServletRequest request) {
+        String encoding = request.getCharacterEncoding();
+        try {
+            return encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+        } catch (Exception e) {
+            return StandardCharsets.UTF_8;
+        }
     }
 }
@@ -1,13 +1,10 @@
 package com.example.mockservice.web;
 
-import com.example.mockservice.domain.MockConfiguration;
-import com.example.mockservice.domain.MockRule;
-import com.example.mockservice.repository.MockConfigurationRepository;
-import com.example.mockservice.repository.MockRuleRepository;
-import tools.jackson.core.type.TypeReference;
-import tools.jackson.databind.ObjectMapper;
+import com.example.mockservice.catalog.MockCatalogService;
+import com.example.mockservice.service.ConfigurationTransferService;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,86 +15,51 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.io.InputStream;
 
 @Controller
 @RequiredArgsConstructor
+@Slf4j
 public class ImportExportController {
 
-    private final MockConfigurationRepository mockConfigurationRepository;
-    private final MockRuleRepository mockRuleRepository;
-    private final ObjectMapper objectMapper;
+    private final ConfigurationTransferService configurationTransferService;
+    private final MockCatalogService mockCatalogService;
 
     @GetMapping("/export")
     @ResponseBody
     public void exportConfigurations(HttpServletResponse response) throws IOException {
-        List<MockConfiguration> configs = mockConfigurationRepository.findAll();
-        List<MockRule> rules = mockRuleRepository.findAll();
-
-        // Create a comprehensive export object
-        Map<String, Object> exportData = new HashMap<>();
-        exportData.put("configurations", configs);
-        exportData.put("rules", rules);
-        exportData.put("exportDate", java.time.Instant.now().toString());
-        exportData.put("version", "1.0");
-
         response.setContentType("application/json");
         response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=flowable-mock-configurations.json");
 
-        objectMapper.writeValue(response.getOutputStream(), exportData);
+        configurationTransferService.export(response.getOutputStream());
     }
 
     @PostMapping("/import")
     public String importConfigurations(@RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "DIFF") ConfigurationTransferService.ImportMode mode,
             RedirectAttributes redirectAttributes) {
         if (file.isEmpty()) {
             redirectAttributes.addFlashAttribute("error", "Please select a file to upload");
             return "redirect:/services";
         }
 
-        try {
-            // Try to read as new format (with rules)
-            Map<String, Object> importData = objectMapper.readValue(file.getInputStream(),
-                    new TypeReference<Map<String, Object>>() {
-                    });
-
-            if (importData.containsKey("configurations")) {
-                // New format
-                List<MockConfiguration> configs = objectMapper.convertValue(
-                        importData.get("configurations"),
-                        new TypeReference<List<MockConfiguration>>() {
-                        });
-
-                mockConfigurationRepository.deleteAll();
-                mockConfigurationRepository.saveAll(configs);
-
-                if (importData.containsKey("rules")) {
-                    List<MockRule> rules = objectMapper.convertValue(
-                            importData.get("rules"),
-                            new TypeReference<List<MockRule>>() {
-                            });
-
-                    mockRuleRepository.deleteAll();
-                    mockRuleRepository.saveAll(rules);
-                }
-
-                redirectAttributes.addFlashAttribute("message",
-                        "Configurations and rules imported successfully!");
+        try (InputStream in = file.getInputStream()) {
+            ConfigurationTransferService.ImportResult result = configurationTransferService.importFrom(in, mode);
+            if (mode == ConfigurationTransferService.ImportMode.REPLACE) {
+                mockCatalogService.refresh();
             } else {
-                // Old format - just configurations
-                file.getInputStream().reset();
-                List<MockConfiguration> configs = objectMapper.readValue(file.getInputStream(),
-                        new TypeReference<List<MockConfiguration>>() {
-                        });
-
-                mockConfigurationRepository.deleteAll();
-                mockConfigurationRepository.saveAll(configs);
+                mockCatalogService.refresh(result.changedServices());
+            }
 
-                redirectAttributes.addFlashAttribute("message", "Configurations imported successfully!");
+            String message = "Imported " + result.configurations() + " configurations and " + result.rules()
+                    + " rules: " + result.inserted() + " inserted, " + result.updated() + " updated, "
+                    + result.deleted() + " deleted, " + result.unchanged() + " unchanged";
+            if (result.skippedRules() > 0) {
+                message += "; " + result.skippedRules() + " rules skipped because their operation does not exist";
             }
-        } catch (IOException e) {
+            redirectAttributes.addFlashAttribute("message", message);
+        } catch (Exception e) {
+            log.warn("Import failed", e);
             redirectAttributes.addFlashAttribute("error", "Import failed: " + e.getMessage());
         }
 
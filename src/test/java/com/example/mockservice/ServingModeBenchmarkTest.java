@@ -0,0 +1,158 @@
+package com.example.mockservice;
+
+import com.example.mockservice.catalog.MockCatalogService;
+import com.example.mockservice.domain.ServiceDefinition;
+import com.example.mockservice.domain.ServiceOperation;
+import com.example.mockservice.repository.ServiceDefinitionRepository;
+import com.example.mockservice.util.OutputSchema;
+import com.example.mockservice.util.RandomDataGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load benchmark comparing the default Tomcat pool with virtual-thread
+ * serving. Every mock response waits {@code mock.benchmark.latency-ms}
+ * (default 500) to simulate a slow upstream, so throughput is bounded by how
+ * many requests can wait at once rather than by CPU.
+ *
+ * <p>
+ * Opt-in: {@code mvn test -Dtest=ServingModeBenchmarkTest -Dmock.benchmark=true}.
+ * {@code mock.benchmark.requests} and {@code mock.benchmark.concurrency} size
+ * the load. The run fails unless virtual threads reach
+ * {@code mock.benchmark.min-headroom} times the platform pool's throughput;
+ * the default of 1 only checks that they keep up, as the achievable ratio
+ * depends on the machine.
+ */
+@EnabledIfSystemProperty(named = "mock.benchmark", matches = "true")
+@Slf4j
+class ServingModeBenchmarkTest {
+
+    private static final long UPSTREAM_LATENCY_MS = Long.getLong("mock.benchmark.latency-ms", 500);
+    private static final int REQUESTS = Integer.getInteger("mock.benchmark.requests", 5_000);
+    private static final int CONCURRENCY = Integer.getInteger("mock.benchmark.concurrency", 1_000);
+    private static final double MIN_HEADROOM = Double.parseDouble(
+            System.getProperty("mock.benchmark.min-headroom", "1"));
+
+    @Test
+    void compareServingModes() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        double headroom = virtual.throughput() / platform.throughput();
+        log.info("Serving mode benchmark: {} requests, {} concurrent, {} ms upstream latency", REQUESTS,
+                CONCURRENCY, UPSTREAM_LATENCY_MS);
+        log.info("platform pool: {} ms, {} req/s", platform.millis, Math.round(platform.throughput()));
+        log.info("virtual threads: {} ms, {} req/s", virtual.millis, Math.round(virtual.throughput()));
+        log.info("headroom: {}x", String.format("%.1f", headroom));
+
+        assertTrue(headroom >= MIN_HEADROOM, () -> String.format(
+                "virtual threads served %.1fx the platform pool's throughput, expected at least %.1fx", headroom,
+                MIN_HEADROOM));
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MockServiceApplication.class)
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID(),
+                        "logging.level.com.example.mockservice=INFO")
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(slowUpstream()))
+                .run()) {
+            seedOperation(context);
+            int port = context.getEnvironment().getProperty("local.server.port", Integer.class);
+            URI uri = URI.create("http://localhost:" + port + "/bench/items/1");
+
+            // Warm up connections and JIT before measuring
+            load(uri, CONCURRENCY);
+            long start = System.nanoTime();
+            load(uri, REQUESTS);
+            return new Result((System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private void load(URI uri, int requests) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        AtomicInteger ok = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+                HttpClient client = HttpClient.newBuilder().executor(executor).build()) {
+            HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+            for (int i = 0; i < requests; i++) {
+                inFlight.acquire();
+                executor.submit(() -> {
+                    try {
+                        if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                            ok.incrementAndGet();
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                    return null;
+                });
+            }
+            inFlight.acquire(CONCURRENCY);
+        }
+        assertEquals(requests, ok.get());
+    }
+
+    private void seedOperation(ConfigurableApplicationContext context) {
+        ServiceDefinition service = new ServiceDefinition();
+        service.setKey("bench");
+        service.setName("Benchmark");
+        ServiceOperation op = new ServiceOperation();
+        op.setKey("getItem");
+        op.setName("Get item");
+        op.setMethod("GET");
+        op.setUrl("/bench/items/${id}");
+        op.setOutputParametersJson("[{\"name\":\"id\",\"type\":\"string\"}]");
+        op.setServiceDefinition(service);
+        service.getOperations().add(op);
+        context.getBean(ServiceDefinitionRepository.class).save(service);
+        context.getBean(MockCatalogService.class).refresh();
+    }
+
+    // No default body is stored, so every request goes through the generator
+    private static BeanPostProcessor slowUpstream() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof RandomDataGenerator)) {
+                    return bean;
+                }
+                return new RandomDataGenerator() {
+                    @Override
+                    public byte[] generate(OutputSchema schema) {
+                        try {
+                            Thread.sleep(UPSTREAM_LATENCY_MS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return super.generate(schema);
+                    }
+                };
+            }
+        };
+    }
+
+    private record Result(long millis) {
+        double throughput() {
+            return REQUESTS * 1000.0 / millis;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.mockservice.catalog;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyProfileTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    private LatencyProfile compile(String json) {
+        return LatencyProfile.compile(json, objectMapper);
+    }
+
+    private long[] samples(LatencyProfile profile, int count) {
+        long[] samples = new long[count];
+        for (int i = 0; i < count; i++) {
+            samples[i] = profile.sampleMillis(random);
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    @Test
+    void testFixedUniformAndNormal() {
+        assertNull(compile(null));
+        assertNull(compile(" "));
+        assertEquals(200, compile("{\"type\":\"fixed\",\"ms\":200}").sampleMillis(random));
+        assertEquals(50, compile("{\"ms\":50}").sampleMillis(random));
+
+        long[] uniform = samples(compile("{\"type\":\"uniform\",\"min\":100,\"max\":300}"), 10_000);
+        assertEquals(100, uniform[0]);
+        assertEquals(300, uniform[uniform.length - 1]);
+
+        long[] normal = samples(compile("{\"type\":\"normal\",\"mean\":20,\"stddev\":40}"), 10_000);
+        assertEquals(0, normal[0]);
+        assertEquals(20, normal[normal.length / 2], 3);
+    }
+
+    @Test
+    void testPercentilesFollowTheHistogram() {
+        long[] samples = samples(compile("{\"type\":\"percentiles\",\"p50\":100,\"p90\":300,\"p99\":900,"
+                + "\"max\":2000}"), 100_000);
+
+        assertEquals(100, samples[0]);
+        assertEquals(100, samples[50_000], 5);
+        assertEquals(300, samples[90_000], 10);
+        assertEquals(900, samples[99_000], 40);
+        assertTrue(samples[samples.length - 1] <= 2000);
+    }
+
+    @Test
+    void testInvalidProfilesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> compile("{bad"));
+        assertThrows(IllegalArgumentException.class, () -> compile("{\"type\":\"gamma\"}"));
+        assertThrows(IllegalArgumentException.class, () -> compile("{\"type\":\"fixed\",\"ms\":-1}"));
+        assertThrows(IllegalArgumentException.class, () -> compile("{\"type\":\"uniform\",\"min\":5,\"max\":1}"));
+        assertThrows(IllegalArgumentException.class, () -> compile("{\"type\":\"percentiles\"}"));
+        assertThrows(IllegalArgumentException.class,
+                () -> compile("{\"type\":\"percentiles\",\"p50\":300,\"p90\":100}"));
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.mockservice.catalog;
+
+import com.example.mockservice.domain.MockRule;
+import com.example.mockservice.domain.ServiceDefinition;
+import com.example.mockservice.domain.ServiceOperation;
+import com.example.mockservice.repository.MockConfigurationRepository;
+import com.example.mockservice.repository.MockRuleRepository;
+import com.example.mockservice.repository.ServiceOperationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MockCatalogServiceTest {
+
+    private ServiceOperationRepository operationRepository;
+    private MockRuleRepository ruleRepository;
+    private MockConfigurationRepository configurationRepository;
+    private MockCatalogService catalogService;
+
+    @BeforeEach
+    void setUp() {
+        operationRepository = mock(ServiceOperationRepository.class);
+        ruleRepository = mock(MockRuleRepository.class);
+        configurationRepository = mock(MockConfigurationRepository.class);
+        catalogService = new MockCatalogService(operationRepository, ruleRepository, configurationRepository,
+                new ObjectMapper());
+    }
+
+    private static ServiceOperation operation(String serviceKey, String key, String url) {
+        ServiceDefinition def = new ServiceDefinition();
+        def.setId(serviceKey + "-id");
+        def.setKey(serviceKey);
+        ServiceOperation op = new ServiceOperation();
+        op.setId(serviceKey + "-" + key);
+        op.setKey(key);
+        op.setMethod("GET");
+        op.setUrl(url);
+        op.setOutputParametersJson("[{\"name\":\"id\",\"type\":\"string\"}]");
+        op.setServiceDefinition(def);
+        return op;
+    }
+
+    @Test
+    void testPartialRefreshKeepsOtherServices() {
+        when(operationRepository.findAllForCatalog()).thenReturn(List.of(
+                operation("a", "get", "/a"), operation("b", "get", "/b"), operation("b", "list", "/b/all")));
+        catalogService.refresh();
+        CatalogOperation untouched = catalogService.current().operation("a-get");
+
+        when(operationRepository.findAllForCatalogByServiceKeys(any()))
+                .thenReturn(List.of(operation("b", "get", "/b/v2")));
+        catalogService.refresh(Set.of("b"));
+
+        MockCatalog catalog = catalogService.current();
+        assertEquals(2, catalog.size());
+        // Same record, so the compiled schema and its memoized responses survive
+        assertSame(untouched, catalog.operation("a-get"));
+        assertNull(catalog.resolve("GET", "/b"));
+        assertNull(catalog.resolve("GET", "/b/all"));
+        assertNotNull(catalog.resolve("GET", "/b/v2"));
+        verify(operationRepository, times(1)).findAllForCatalog();
+        verify(ruleRepository).findByServiceOperationIdInOrderByPriorityAsc(List.of("b-get"));
+    }
+
+    @Test
+    void testRemovedServiceLeavesCatalog() {
+        when(operationRepository.findAllForCatalog()).thenReturn(List.of(operation("a", "get", "/a")));
+        catalogService.refresh();
+
+        catalogService.refresh(Set.of("a"));
+
+        assertEquals(0, catalogService.current().size());
+        verify(ruleRepository, never()).findByServiceOperationIdInOrderByPriorityAsc(any());
+    }
+
+    @Test
+    void testEmptyRefreshKeepsSnapshot() {
+        when(operationRepository.findAllForCatalog()).thenReturn(List.of(operation("a", "get", "/a")));
+        catalogService.refresh();
+        MockCatalog before = catalogService.current();
+
+        catalogService.refresh(Set.of());
+
+        assertSame(before, catalogService.current());
+        verify(operationRepository, never()).findAllForCatalogByServiceKeys(any());
+    }
+
+    @Test
+    void testProblemsAreReportedWithoutBlockingTheSwap() {
+        ServiceOperation unroutable = operation("a", "none", null);
+        ServiceOperation broken = operation("b", "broken", "/b");
+        broken.setOutputParametersJson("not json");
+        when(operationRepository.findAllForCatalog()).thenReturn(List.of(
+                operation("a", "get", "/items/${id}"), operation("b", "get", "/items/${itemId}"), unroutable,
+                broken));
+
+        catalogService.refresh();
+
+        assertEquals(4, catalogService.current().size());
+        // Sharing a url is resolved by configuration, so it is not a problem
+        assertEquals(List.of("a/none has no method or url and cannot be routed",
+                "b/broken has invalid output parameters"), catalogService.problems());
+    }
+
+    @Test
+    void testCandidateIsNotPublishedByBuilding() {
+        when(operationRepository.findAllForCatalog()).thenReturn(List.of(operation("a", "get", "/a")));
+        catalogService.refresh();
+        MockCatalog before = catalogService.current();
+
+        when(operationRepository.findAllForCatalog()).thenReturn(List.of(
+                operation("a", "get", "/a"), operation("b", "none", null)));
+        MockCatalogService.Candidate candidate = catalogService.build();
+
+        assertSame(before, catalogService.current());
+        assertEquals(2, candidate.catalog().size());
+        assertEquals(List.of("b/none has no method or url and cannot be routed"), candidate.problems());
+    }
+
+    @Test
+    void testStaleCandidateIsNotPublished() {
+        when(operationRepository.findAllForCatalog()).thenReturn(List.of(operation("a", "get", "/a")));
+        MockCatalogService.Candidate candidate = catalogService.build();
+        catalogService.refresh();
+        MockCatalog refreshed = catalogService.current();
+
+        assertFalse(catalogService.publish(candidate));
+        assertSame(refreshed, catalogService.current());
+
+        MockCatalogService.Candidate fresh = catalogService.build();
+        assertTrue(catalogService.publish(fresh));
+        assertSame(fresh.catalog(), catalogService.current());
+    }
+
+    @Test
+    void testRulesThatNeverMatchAreReported() {
+        ServiceOperation op = operation("a", "get", "/a");
+        MockRule rule = new MockRule();
+        rule.setId("r1");
+        rule.setServiceOperation(op);
+        rule.setConditions("{\"amount\":{\"$gt\":\"lots\"}}");
+        when(operationRepository.findAllForCatalog()).thenReturn(List.of(op));
+        when(ruleRepository.findAllByOrderByPriorityAsc()).thenReturn(List.of(rule));
+
+        catalogService.refresh();
+
+        assertEquals(List.of("a/get rule r1 has invalid conditions and never matches"), catalogService.problems());
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.mockservice.catalog;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleConditionTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testAllConditionsMustMatch() throws Exception {
+        RuleCondition condition = RuleCondition.compile("{\"employeeId\":\"123\",\"includeDetails\":\"true\"}",
+                objectMapper);
+
+        JsonNode both = objectMapper.readTree("{\"employeeId\":\"123\",\"includeDetails\":\"true\"}");
+        JsonNode one = objectMapper.readTree("{\"employeeId\":\"123\"}");
+
+        assertTrue(condition.matches(both));
+        assertFalse(condition.matches(one));
+    }
+
+    @Test
+    void testNonStringValuesCompareAsStrings() throws Exception {
+        RuleCondition condition = RuleCondition.compile("{\"amount\":100,\"active\":true}", objectMapper);
+
+        assertTrue(condition.matches(objectMapper.readTree("{\"amount\":\"100\",\"active\":true}")));
+        assertFalse(condition.matches(objectMapper.readTree("{\"amount\":101,\"active\":true}")));
+    }
+
+    @Test
+    void testEmptyConditionsAlwaysMatch() throws Exception {
+        assertSame(RuleCondition.ALWAYS, RuleCondition.compile(null, objectMapper));
+        assertSame(RuleCondition.ALWAYS, RuleCondition.compile(" ", objectMapper));
+        assertTrue(RuleCondition.ALWAYS.matches(objectMapper.readTree("{}")));
+    }
+
+    @Test
+    void testInvalidConditionsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> RuleCondition.compile("{not json", objectMapper));
+        assertThrows(IllegalArgumentException.class, () -> RuleCondition.compile("[1,2]", objectMapper));
+    }
+
+    private boolean matches(String conditions, String requestJson) {
+        return RuleCondition.compile(conditions, objectMapper).matches(objectMapper.readTree(requestJson));
+    }
+
+    @Test
+    void testNumericComparisonsAndRanges() {
+        assertTrue(matches("{\"amount\":\">100\"}", "{\"amount\":150.5}"));
+        assertTrue(matches("{\"amount\":\">100\"}", "{\"amount\":\"101\"}"));
+        assertFalse(matches("{\"amount\":\">100\"}", "{\"amount\":100}"));
+        assertTrue(matches("{\"amount\":\">=100\"}", "{\"amount\":100}"));
+        assertTrue(matches("{\"amount\":\"<=0\"}", "{\"amount\":-3}"));
+        assertFalse(matches("{\"amount\":\"<10\"}", "{\"amount\":\"abc\"}"));
+        assertFalse(matches("{\"amount\":\"<10\"}", "{}"));
+
+        assertTrue(matches("{\"age\":\"18..65\"}", "{\"age\":18}"));
+        assertTrue(matches("{\"age\":\"18..65\"}", "{\"age\":\"65\"}"));
+        assertFalse(matches("{\"age\":\"18..65\"}", "{\"age\":65.5}"));
+        assertTrue(matches("{\"age\":{\"$gte\":18,\"$lt\":21}}", "{\"age\":20}"));
+        assertFalse(matches("{\"age\":{\"$gte\":18,\"$lt\":21}}", "{\"age\":21}"));
+    }
+
+    @Test
+    void testRegexSetsExistenceAndNegation() {
+        assertTrue(matches("{\"id\":\"~^EMP-\\\\d+$\"}", "{\"id\":\"EMP-42\"}"));
+        assertFalse(matches("{\"id\":\"~^EMP-\\\\d+$\"}", "{\"id\":\"EMP-x\"}"));
+        assertTrue(matches("{\"id\":{\"$regex\":\"^A\"}}", "{\"id\":\"Ab\"}"));
+
+        assertTrue(matches("{\"status\":{\"$in\":[\"open\",\"pending\",3]}}", "{\"status\":\"pending\"}"));
+        assertTrue(matches("{\"status\":{\"$in\":[\"open\",\"pending\",3]}}", "{\"status\":3}"));
+        assertFalse(matches("{\"status\":{\"$in\":[\"open\"]}}", "{\"status\":\"closed\"}"));
+
+        assertTrue(matches("{\"token\":{\"$exists\":true}}", "{\"token\":null}"));
+        assertTrue(matches("{\"token\":{\"$exists\":false}}", "{}"));
+        assertFalse(matches("{\"token\":{\"$exists\":false}}", "{\"token\":\"x\"}"));
+
+        assertTrue(matches("{\"status\":\"!=closed\"}", "{\"status\":\"open\"}"));
+        assertTrue(matches("{\"status\":\"!=closed\"}", "{}"));
+        assertFalse(matches("{\"status\":{\"$ne\":\"closed\"}}", "{\"status\":\"closed\"}"));
+
+        // $eq escapes values that would read as operators
+        assertTrue(matches("{\"note\":{\"$eq\":\">100\"}}", "{\"note\":\">100\"}"));
+    }
+
+    @Test
+    void testPointersAndHeaders() {
+        assertTrue(matches("{\"/customer/address/city\":\"Berlin\",\"/items/0/qty\":\">1\"}",
+                "{\"customer\":{\"address\":{\"city\":\"Berlin\"}},\"items\":[{\"qty\":2}]}"));
+        assertFalse(matches("{\"/customer/address/city\":\"Berlin\"}", "{\"customer\":{}}"));
+        assertTrue(matches("{\"/customer\":{\"tier\":\"gold\"}}", "{\"customer\":{\"tier\":\"gold\"}}"));
+
+        RuleCondition condition = RuleCondition.compile("{\"header:X-Tenant\":\"acme\",\"id\":\"1\"}",
+                objectMapper);
+        JsonNode body = objectMapper.readTree("{\"id\":\"1\"}");
+        assertTrue(condition.matches(RuleInput.of(body, Map.of("X-Tenant", "acme")::get)));
+        assertFalse(condition.matches(RuleInput.of(body, Map.of("X-Tenant", "other")::get)));
+        assertFalse(condition.matches(body));
+    }
+
+    @Test
+    void testOnlyPlainEqualityIsIndexable() {
+        RuleCondition condition = RuleCondition.compile("{\"id\":\"7\",\"amount\":\">1\",\"/a/b\":\"x\","
+                + "\"header:X\":\"y\",\"type\":{\"$eq\":\"t\"}}", objectMapper);
+
+        assertEquals(List.of("id", "type"), condition.equalityKeys());
+        assertEquals("7", condition.expectedValue("id"));
+        assertNull(condition.expectedValue("amount"));
+    }
+
+    @Test
+    void testOperatorLookalikesMatchAsText() {
+        assertTrue(matches("{\"a\":\"<none>\"}", "{\"a\":\"<none>\"}"));
+        assertFalse(matches("{\"a\":\"<none>\"}", "{\"a\":\"none\"}"));
+        assertTrue(matches("{\"a\":\">N/A\"}", "{\"a\":\">N/A\"}"));
+        assertTrue(matches("{\"a\":\"~[\"}", "{\"a\":\"~[\"}"));
+        assertTrue(matches("{\"a\":\"x..y\"}", "{\"a\":\"x..y\"}"));
+
+        // Still indexable like any other equality
+        assertEquals("<none>", RuleCondition.compile("{\"a\":\"<none>\"}", objectMapper).expectedValue("a"));
+    }
+
+    @Test
+    void testMalformedOperatorsAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RuleCondition.compile("{\"a\":{\"$gt\":\"abc\"}}", objectMapper));
+        assertThrows(IllegalArgumentException.class,
+                () -> RuleCondition.compile("{\"a\":{\"$regex\":\"[\"}}", objectMapper));
+        assertThrows(IllegalArgumentException.class,
+                () -> RuleCondition.compile("{\"a\":{\"$in\":\"x\"}}", objectMapper));
+        assertThrows(IllegalArgumentException.class,
+                () -> RuleCondition.compile("{\"a\":{\"$between\":1}}", objectMapper));
+        assertThrows(IllegalArgumentException.class,
+                () -> RuleCondition.compile("{\"header:\":\"x\"}", objectMapper));
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.mockservice.catalog;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleIndexTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private CompiledRule rule(String id, int priority, String conditions) {
+        RuleCondition condition = conditions == null ? null : RuleCondition.compile(conditions, objectMapper);
+        return new CompiledRule(id, priority, condition, 200, null, null);
+    }
+
+    private List<CompiledRule> perIdRules(int count) {
+        List<CompiledRule> rules = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rules.add(rule("id-" + i, i, "{\"employeeId\":\"" + i + "\"}"));
+        }
+        return rules;
+    }
+
+    private String match(RuleIndex index, String requestJson) {
+        CompiledRule rule = index.match(objectMapper.readTree(requestJson));
+        return rule != null ? rule.id() : null;
+    }
+
+    @Test
+    void testIndexesManyPerIdRules() {
+        RuleIndex index = RuleIndex.of(perIdRules(5000));
+
+        assertEquals("employeeId", index.indexKey());
+        assertEquals("id-4999", match(index, "{\"employeeId\":\"4999\"}"));
+        assertEquals("id-17", match(index, "{\"employeeId\":17}"));
+        assertNull(match(index, "{\"employeeId\":\"5000\"}"));
+        assertNull(match(index, "{\"other\":\"1\"}"));
+    }
+
+    @Test
+    void testPriorityIsPreservedAcrossIndexedAndUnindexedRules() {
+        List<CompiledRule> rules = new ArrayList<>();
+        rules.add(rule("narrow", 0, "{\"employeeId\":\"7\",\"region\":\"eu\"}"));
+        rules.add(rule("by-region", 1, "{\"region\":\"us\"}"));
+        rules.addAll(perIdRules(10).subList(5, 10));
+        rules.add(rule("catch-all", 50, "{}"));
+        rules.add(rule("late", 60, "{\"employeeId\":\"1\"}"));
+
+        RuleIndex index = RuleIndex.of(rules);
+
+        assertEquals("employeeId", index.indexKey());
+        assertEquals("narrow", match(index, "{\"employeeId\":\"7\",\"region\":\"eu\"}"));
+        assertEquals("by-region", match(index, "{\"employeeId\":\"7\",\"region\":\"us\"}"));
+        assertEquals("id-7", match(index, "{\"employeeId\":\"7\"}"));
+        // The unconditional rule outranks a later indexed one
+        assertEquals("catch-all", match(index, "{\"employeeId\":\"1\"}"));
+        assertEquals("catch-all", match(index, "{}"));
+    }
+
+    @Test
+    void testMatchesLikeALinearScan() {
+        List<CompiledRule> rules = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String conditions = switch (i % 4) {
+                case 0 -> "{\"a\":\"" + (i % 3) + "\"}";
+                case 1 -> "{\"a\":\"" + (i % 5) + "\",\"b\":\"x\"}";
+                case 2 -> "{\"b\":\"" + (i % 2) + "\"}";
+                default -> i % 8 == 3 ? null : "{\"a\":{\"n\":" + (i % 2) + "}}";
+            };
+            rules.add(rule("r" + i, i, conditions));
+        }
+        RuleIndex index = RuleIndex.of(rules);
+        assertEquals("a", index.indexKey());
+
+        String[] requests = { "{}", "{\"a\":\"0\"}", "{\"a\":\"1\",\"b\":\"x\"}", "{\"a\":\"4\",\"b\":\"x\"}",
+                "{\"b\":\"1\"}", "{\"a\":{\"n\":1}}", "{\"a\":{\"n\":0},\"b\":\"0\"}", "{\"a\":null}" };
+        for (String request : requests) {
+            String expected = null;
+            for (CompiledRule rule : rules) {
+                if (rule.isValid() && rule.condition().matches(objectMapper.readTree(request))) {
+                    expected = rule.id();
+                    break;
+                }
+            }
+            assertEquals(expected, match(index, request), request);
+        }
+    }
+
+    @Test
+    void testSmallAndInvalidRuleSetsAreScanned() {
+        RuleIndex small = RuleIndex.of(perIdRules(3));
+        assertNull(small.indexKey());
+        assertEquals("id-2", match(small, "{\"employeeId\":\"2\"}"));
+
+        RuleIndex invalid = RuleIndex.of(List.of(rule("broken", 0, null)));
+        assertTrue(invalid.isEmpty());
+        assertEquals(1, invalid.all().size());
+        assertNull(match(invalid, "{}"));
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.mockservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigurationTransferServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JdbcTemplate jdbcTemplate;
+    private ConfigurationTransferService service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table service_definition (id varchar(255) not null, \"key\" varchar(255), "
+                + "primary key (id))");
+        jdbcTemplate.execute("create table service_operation (id varchar(255) not null, \"key\" varchar(255), "
+                + "service_definition_id varchar(255), primary key (id))");
+        jdbcTemplate.execute("create table mock_configuration (http_status integer not null, "
+                + "id varchar(255) not null, operation_id varchar(255) unique, custom_response_body TEXT, "
+                + "content_type varchar(255), latency TEXT, bandwidth integer, cache_responses boolean, "
+                + "primary key (id))");
+        jdbcTemplate.execute("create table mock_rule (priority integer not null, response_status integer not null, "
+                + "id varchar(255) not null, service_operation_id varchar(255) references service_operation, "
+                + "conditions TEXT, response_body TEXT, latency TEXT, primary key (id))");
+        jdbcTemplate.update("insert into service_definition values ('s1', 'svc')");
+        jdbcTemplate.update("insert into service_operation values ('op1', 'get', 's1')");
+        service = new ConfigurationTransferService(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), objectMapper, 3);
+    }
+
+    private ConfigurationTransferService.ImportResult importJson(String json) {
+        return service.importFrom(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private JsonNode export() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.export(out);
+        return objectMapper.readTree(out.toByteArray());
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class);
+    }
+
+    @Test
+    void testRoundTripAcrossSeveralPages() {
+        for (int i = 0; i < 10; i++) {
+            jdbcTemplate.update("insert into mock_rule values (?, 200, ?, 'op1', ?, '{}', null)", i, "r" + i,
+                    "{\"n\":\"" + i + "\"}");
+        }
+        jdbcTemplate.update("insert into mock_configuration values (201, 'c1', 'op1', '{}', 'application/json', "
+                + "null, null, null)");
+
+        JsonNode exported = export();
+
+        assertEquals(ConfigurationTransferService.VERSION, exported.get("version").asString());
+        assertEquals(10, exported.get("rules").size());
+        JsonNode rule = exported.get("rules").get(0);
+        assertEquals("svc", rule.get("serviceKey").asString());
+        assertEquals("get", rule.get("operationKey").asString());
+        assertEquals(1, exported.get("configurations").size());
+
+        jdbcTemplate.update("delete from mock_rule");
+        jdbcTemplate.update("delete from mock_configuration");
+        ConfigurationTransferService.ImportResult result = importJson(exported.toString());
+
+        assertEquals(1, result.configurations());
+        assertEquals(10, result.rules());
+        assertEquals(11, result.inserted());
+        assertEquals(10, count("mock_rule"));
+        assertEquals(export().get("rules"), exported.get("rules"));
+    }
+
+    @Test
+    void testOperationsAreResolvedByKey() {
+        // Ids from another instance; keys match this one
+        importJson("{\"rules\":[{\"serviceOperationId\":\"elsewhere\",\"serviceKey\":\"svc\",\"operationKey\":\"get\","
+                + "\"conditions\":\"{}\",\"responseStatus\":404,\"priority\":1},"
+                + "{\"serviceOperationId\":\"elsewhere\",\"serviceKey\":\"svc\",\"operationKey\":\"missing\"}],"
+                + "\"configurations\":[{\"operationId\":\"elsewhere\",\"serviceKey\":\"svc\",\"operationKey\":\"get\"}]}");
+
+        assertEquals("op1", jdbcTemplate.queryForObject("select service_operation_id from mock_rule", String.class));
+        assertEquals("op1", jdbcTemplate.queryForObject("select operation_id from mock_configuration",
+                String.class));
+    }
+
+    @Test
+    void testLegacyFormats() {
+        // Plain array of configurations
+        ConfigurationTransferService.ImportResult result = importJson(
+                "[{\"operationId\":\"op1\",\"httpStatus\":500,\"customResponseBody\":\"{}\"}]");
+        assertEquals(1, result.configurations());
+        assertEquals(500, jdbcTemplate.queryForObject("select http_status from mock_configuration", Integer.class));
+
+        // 1.0 exports nest the whole operation in each rule
+        result = importJson("{\"version\":\"1.0\",\"configurations\":[],\"rules\":[{\"id\":\"r1\","
+                + "\"serviceOperation\":{\"id\":\"op1\",\"rules\":[{\"id\":\"r1\"}],\"inputs\":[]},"
+                + "\"conditions\":\"{}\",\"responseStatus\":418,\"responseBody\":null,\"priority\":2},"
+                + "{\"id\":\"r2\",\"serviceOperation\":{\"id\":\"gone\"}}]}");
+        assertEquals(1, result.rules());
+        assertEquals(1, result.skippedRules());
+        assertEquals(0, count("mock_configuration"));
+        assertEquals(418, jdbcTemplate.queryForObject("select response_status from mock_rule where id = 'r1'",
+                Integer.class));
+    }
+
+    private void insertRule(String id, String conditions, int status, String body, int priority) {
+        jdbcTemplate.update("insert into mock_rule values (?, ?, ?, 'op1', ?, ?, null)", priority, status, id,
+                conditions, body);
+    }
+
+    @Test
+    void testDiffImportTouchesOnlyChangedRows() {
+        insertRule("keep", "{\"a\":\"1\",\"b\":\"2\"}", 200, "{}", 1);
+        insertRule("change", "{\"a\":\"2\"}", 200, "{}", 2);
+        insertRule("drop", "{\"a\":\"3\"}", 200, "{}", 3);
+        jdbcTemplate.update("insert into mock_configuration values (201, 'c1', 'op1', '{}', 'application/json', "
+                + "null, null, null)");
+
+        // Same conditions in another key order and layout, a new body, a removed rule and a new one
+        ConfigurationTransferService.ImportResult result = importJson("{\"configurations\":[{\"operationId\":"
+                + "\"op1\",\"httpStatus\":201,\"customResponseBody\":\"{}\",\"contentType\":\"application/json\"}],"
+                + "\"rules\":[{\"id\":\"x1\",\"serviceKey\":\"svc\",\"operationKey\":\"get\","
+                + "\"conditions\":\"{ \\\"b\\\": \\\"2\\\", \\\"a\\\": \\\"1\\\" }\",\"responseStatus\":200,"
+                + "\"responseBody\":\"{}\",\"priority\":1},"
+                + "{\"serviceKey\":\"svc\",\"operationKey\":\"get\",\"conditions\":{\"a\":\"2\"},"
+                + "\"responseStatus\":500,\"responseBody\":\"{}\",\"priority\":2},"
+                + "{\"id\":\"new\",\"serviceKey\":\"svc\",\"operationKey\":\"get\",\"conditions\":\"{\\\"a\\\":\\\"4\\\"}\","
+                + "\"responseStatus\":404,\"priority\":4}]}");
+
+        assertEquals(1, result.inserted());
+        assertEquals(1, result.updated());
+        assertEquals(1, result.deleted());
+        assertEquals(2, result.unchanged());
+        assertEquals(java.util.Set.of("svc"), result.changedServices());
+        assertEquals(java.util.List.of("change", "keep", "new"),
+                jdbcTemplate.queryForList("select id from mock_rule order by id", String.class));
+        assertEquals(500, jdbcTemplate.queryForObject("select response_status from mock_rule where id = 'change'",
+                Integer.class));
+        assertEquals("c1", jdbcTemplate.queryForObject("select id from mock_configuration", String.class));
+    }
+
+    @Test
+    void testUnchangedImportWritesNothing() {
+        insertRule("r1", "{\"a\":\"1\"}", 200, "{}", 1);
+        JsonNode exported = export();
+
+        ConfigurationTransferService.ImportResult result = importJson(exported.toString());
+
+        assertEquals(0, result.inserted() + result.updated() + result.deleted());
+        assertTrue(result.changedServices().isEmpty());
+    }
+
+    @Test
+    void testLatencyBandwidthAndCachingAreExportedAndDiffed() {
+        insertRule("r1", "{\"a\":\"1\"}", 200, "{}", 1);
+        jdbcTemplate.update("update mock_rule set latency = '{\"type\":\"fixed\",\"ms\":5}'");
+        jdbcTemplate.update("insert into mock_configuration values (200, 'c1', 'op1', '{}', 'application/json', "
+                + "null, 4096, true)");
+        JsonNode exported = export();
+        assertEquals("{\"type\":\"fixed\",\"ms\":5}", exported.get("rules").get(0).get("latency").asString());
+        assertEquals(4096, exported.get("configurations").get(0).get("bandwidth").asInt());
+        assertTrue(exported.get("configurations").get(0).get("cacheResponses").asBoolean());
+
+        jdbcTemplate.update("update mock_rule set latency = null");
+        jdbcTemplate.update("update mock_configuration set bandwidth = null, cache_responses = null");
+        ConfigurationTransferService.ImportResult result = importJson(exported.toString());
+
+        assertEquals(2, result.updated());
+        assertEquals("{\"type\":\"fixed\",\"ms\":5}",
+                jdbcTemplate.queryForObject("select latency from mock_rule", String.class));
+        assertEquals(4096, jdbcTemplate.queryForObject("select bandwidth from mock_configuration", Integer.class));
+        assertEquals(Boolean.TRUE,
+                jdbcTemplate.queryForObject("select cache_responses from mock_configuration", Boolean.class));
+    }
+
+    @Test
+    void testReplaceModeRewritesEverything() {
+        insertRule("r1", "{\"a\":\"1\"}", 200, "{}", 1);
+        JsonNode exported = export();
+
+        ConfigurationTransferService.ImportResult result = service.importFrom(
+                new ByteArrayInputStream(exported.toString().getBytes(StandardCharsets.UTF_8)),
+                ConfigurationTransferService.ImportMode.REPLACE);
+
+        assertEquals(1, result.inserted());
+        assertEquals(1, result.deleted());
+        assertEquals("r1", jdbcTemplate.queryForObject("select id from mock_rule", String.class));
+    }
+
+    @Test
+    void testFailedImportChangesNothing() {
+        jdbcTemplate.update("insert into mock_configuration values (201, 'c1', 'op1', '{}', 'application/json', "
+                + "null, null, null)");
+
+        // Duplicate operationId violates the unique constraint after the table was cleared
+        assertThrows(RuntimeException.class, () -> importJson(
+                "{\"configurations\":[{\"operationId\":\"a\"},{\"operationId\":\"a\"}]}"));
+
+        assertEquals("c1", jdbcTemplate.queryForObject("select id from mock_configuration", String.class));
+    }
+}
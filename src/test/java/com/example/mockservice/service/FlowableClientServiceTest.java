@@ -0,0 +1,299 @@
+package com.example.mockservice.service;
+
+import com.example.mockservice.domain.ServiceDefinition;
+import com.example.mockservice.domain.ServiceOperation;
+import com.example.mockservice.repository.ServiceDefinitionRepository;
+import com.example.mockservice.util.RandomDataGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class FlowableClientServiceTest {
+
+    private static final String LIST_PATH = "/service-registry-api/service-repository/service-definitions";
+
+    private ServiceDefinitionRepository repository;
+    private PlatformTransactionManager transactionManager;
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ServiceDefinitionRepository.class);
+        when(repository.findByKeyIn(any())).thenReturn(List.of());
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    private FlowableClientService service(Function<ClientRequest, ClientResponse> handler, int batchSize) {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            calls.computeIfAbsent(request.url().getPath(), k -> new AtomicInteger()).incrementAndGet();
+            return Mono.just(handler.apply(request));
+        });
+        FlowableClientService service = new FlowableClientService(repository, builder, new RandomDataGenerator(),
+                new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(service, "flowableHost", "http://flowable");
+        ReflectionTestUtils.setField(service, "flowableUsername", "admin");
+        ReflectionTestUtils.setField(service, "flowablePassword", "test");
+        ReflectionTestUtils.setField(service, "batchSize", batchSize);
+        ReflectionTestUtils.setField(service, "retryBackoff", Duration.ofMillis(1));
+        return service;
+    }
+
+    private static ClientResponse json(String body) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+
+    private static String list(int count) {
+        List<String> entries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            entries.add("{\"deploymentId\":\"d" + i + "\",\"resourceName\":\"s" + i + ".json\"}");
+        }
+        return "{\"data\":[" + String.join(",", entries) + "]}";
+    }
+
+    private static String definition(String key) {
+        return "{\"key\":\"" + key + "\",\"name\":\"" + key + "\",\"operations\":[{\"key\":\"get\","
+                + "\"config\":{\"method\":\"GET\",\"url\":\"/" + key + "\"},"
+                + "\"outputParameters\":[{\"name\":\"id\",\"type\":\"string\"}]}]}";
+    }
+
+    private static String keyOf(ClientRequest request) {
+        String path = request.url().getPath();
+        return path.substring(path.lastIndexOf('/') + 1).replace(".json", "");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ServiceDefinition> savedDefinitions() {
+        ArgumentCaptor<Iterable<ServiceDefinition>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(repository, atLeastOnce()).saveAll(captor.capture());
+        List<ServiceDefinition> saved = new ArrayList<>();
+        captor.getAllValues().forEach(batch -> batch.forEach(saved::add));
+        return saved;
+    }
+
+    @Test
+    void testTransientFailuresAreRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+        FlowableClientService service = service(request -> {
+            if (request.url().getPath().equals(LIST_PATH)) {
+                return json(list(1));
+            }
+            if (attempts.incrementAndGet() < 3) {
+                return ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+            return json(definition(keyOf(request)));
+        }, 25);
+
+        SyncReport report = service.syncDefinitions();
+
+        assertEquals(1, report.total());
+        assertEquals(1, report.saved());
+        assertFalse(report.hasFailures());
+        assertEquals(3, attempts.get());
+        assertEquals("s0", savedDefinitions().get(0).getKey());
+    }
+
+    @Test
+    void testFailingDefinitionDoesNotAbortSync() {
+        FlowableClientService service = service(request -> {
+            if (request.url().getPath().equals(LIST_PATH)) {
+                return json(list(5));
+            }
+            if (keyOf(request).equals("s2")) {
+                // Client errors are not retried
+                return ClientResponse.create(HttpStatus.NOT_FOUND).build();
+            }
+            return json(definition(keyOf(request)));
+        }, 25);
+
+        SyncReport report = service.syncDefinitions();
+
+        assertEquals(5, report.total());
+        assertEquals(4, report.saved());
+        assertEquals(1, report.failures().size());
+        assertEquals("d2", report.failures().get(0).deploymentId());
+        assertEquals(1, calls.get("/service-registry-api/service-repository/deployments/d2/resourcedata/s2.json")
+                .get());
+        assertEquals(4, savedDefinitions().size());
+    }
+
+    @Test
+    void testDefinitionsAreSavedInBatches() {
+        FlowableClientService service = service(request -> request.url().getPath().equals(LIST_PATH)
+                ? json(list(10))
+                : json(definition(keyOf(request))), 4);
+
+        SyncReport report = service.syncDefinitions();
+
+        assertEquals(10, report.saved());
+        // 4 + 4 + 2, one lookup and one flush per batch, all in one transaction
+        verify(repository, times(3)).findByKeyIn(any());
+        verify(repository, times(3)).flush();
+        verify(transactionManager, times(1)).commit(any());
+        List<ServiceDefinition> saved = savedDefinitions();
+        assertEquals(10, saved.size());
+        assertEquals("GET", saved.get(0).getOperations().get(0).getMethod());
+    }
+
+    @Test
+    void testFailedWriteRollsBackWholeSync() {
+        when(repository.saveAll(any())).thenReturn(List.of()).thenThrow(new IllegalStateException("disk full"));
+        FlowableClientService service = service(request -> request.url().getPath().equals(LIST_PATH)
+                ? json(list(10))
+                : json(definition(keyOf(request))), 4);
+
+        assertThrows(IllegalStateException.class, service::syncDefinitions);
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void testCheckBeforeCommitCanRollBack() {
+        FlowableClientService service = serving(2);
+
+        assertThrows(IllegalStateException.class, () -> service.syncDefinitions(false, report -> {
+            assertEquals(2, report.saved());
+            throw new IllegalStateException("rejected");
+        }));
+        verify(repository).saveAll(any());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void testOperationWithoutKeySkipsDefinition() {
+        FlowableClientService service = service(request -> {
+            if (request.url().getPath().equals(LIST_PATH)) {
+                return json(list(2));
+            }
+            return keyOf(request).equals("s1")
+                    ? json("{\"key\":\"s1\",\"operations\":[{\"name\":\"no key\"}]}")
+                    : json(definition(keyOf(request)));
+        }, 25);
+
+        SyncReport report = service.syncDefinitions();
+
+        assertEquals(1, report.saved());
+        assertEquals(1, report.failures().size());
+        assertEquals("Operation has no key", report.failures().get(0).reason());
+        assertEquals(List.of("s0"), savedDefinitions().stream().map(ServiceDefinition::getKey).toList());
+    }
+
+    private static ServiceDefinition stored(String key, String deploymentId, String hash) {
+        ServiceDefinition def = new ServiceDefinition();
+        def.setId(key + "-id");
+        def.setKey(key);
+        def.setDeploymentId(deploymentId);
+        def.setResourceName(key + ".json");
+        def.setContentHash(hash);
+        return def;
+    }
+
+    private FlowableClientService serving(int count) {
+        return service(request -> request.url().getPath().equals(LIST_PATH)
+                ? json(list(count))
+                : json(definition(keyOf(request))), 25);
+    }
+
+    @Test
+    void testSyncedDeploymentsAreNotFetched() {
+        when(repository.findAll()).thenReturn(List.of(stored("s0", "d0", "abc")));
+
+        SyncReport report = serving(2).syncDefinitions();
+
+        assertEquals(2, report.total());
+        assertEquals(1, report.saved());
+        assertEquals(1, report.unchanged());
+        assertEquals(java.util.Set.of("s1"), report.changedServices());
+        assertNull(calls.get("/service-registry-api/service-repository/deployments/d0/resourcedata/s0.json"));
+    }
+
+    @Test
+    void testUnchangedContentIsNotRewritten() {
+        String hash = FlowableClientService.contentHash(new ObjectMapper().readTree(definition("s0")));
+        ServiceDefinition existing = stored("s0", "old-deployment", hash);
+        when(repository.findByKeyIn(any())).thenReturn(List.of(existing));
+
+        SyncReport report = serving(1).syncDefinitions();
+
+        assertEquals(0, report.saved());
+        assertEquals(1, report.unchanged());
+        assertTrue(report.changedServices().isEmpty());
+        assertEquals("d0", existing.getDeploymentId());
+        assertTrue(existing.getOperations().isEmpty());
+    }
+
+    @Test
+    void testFullSyncRewritesEverything() {
+        String hash = FlowableClientService.contentHash(new ObjectMapper().readTree(definition("s0")));
+        when(repository.findAll()).thenReturn(List.of(stored("s0", "d0", hash)));
+        ServiceDefinition existing = stored("s0", "d0", hash);
+        when(repository.findByKeyIn(any())).thenReturn(List.of(existing));
+
+        SyncReport report = serving(1).syncDefinitions(true);
+
+        assertEquals(1, report.saved());
+        assertEquals(1, existing.getOperations().size());
+    }
+
+    @Test
+    void testOnlyChangedOperationsAreRegenerated() {
+        ServiceDefinition existing = stored("s0", "old-deployment", "old-hash");
+        ServiceOperation kept = new ServiceOperation();
+        kept.setKey("get");
+        kept.setUrl("/old");
+        kept.setOutputParametersJson("[{\"name\":\"id\",\"type\":\"string\"}]");
+        kept.setDefaultResponseBody("{\"id\":\"kept\"}");
+        kept.setServiceDefinition(existing);
+        ServiceOperation removed = new ServiceOperation();
+        removed.setKey("gone");
+        removed.setServiceDefinition(existing);
+        existing.getOperations().addAll(List.of(kept, removed));
+        when(repository.findByKeyIn(any())).thenReturn(List.of(existing));
+
+        SyncReport report = serving(1).syncDefinitions();
+
+        assertEquals(java.util.Set.of("s0"), report.changedServices());
+        assertEquals(List.of(kept), existing.getOperations());
+        assertEquals("/s0", kept.getUrl());
+        assertEquals("{\"id\":\"kept\"}", kept.getDefaultResponseBody());
+        assertNotNull(existing.getContentHash());
+        assertNotEquals("old-hash", existing.getContentHash());
+    }
+
+    @Test
+    void testListFailureAbortsSync() {
+        FlowableClientService service = service(request -> ClientResponse.create(HttpStatus.UNAUTHORIZED).build(),
+                25);
+
+        assertThrows(RuntimeException.class, service::syncDefinitions);
+        verify(repository, never()).saveAll(any());
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.mockservice.service;
+
+import com.example.mockservice.catalog.MockCatalog;
+import com.example.mockservice.catalog.MockCatalogService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class FlowableSyncJobTest {
+
+    private FlowableClientService client;
+    private MockCatalogService catalogService;
+    private FlowableSyncJob job;
+
+    @BeforeEach
+    void setUp() {
+        client = mock(FlowableClientService.class);
+        catalogService = mock(MockCatalogService.class);
+        job = new FlowableSyncJob(client, catalogService, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.stop();
+    }
+
+    private static SyncReport report(Set<String> changed) {
+        return new SyncReport(3, changed.size(), 3 - changed.size(), changed, List.of(), Duration.ofMillis(5));
+    }
+
+    private static MockCatalogService.Candidate candidate(List<String> problems) {
+        return new MockCatalogService.Candidate(MockCatalog.EMPTY, problems, MockCatalog.EMPTY);
+    }
+
+    // Runs the check the job passes in, as the client does before committing
+    @SuppressWarnings("unchecked")
+    private void syncReturns(SyncReport report) {
+        when(client.syncDefinitions(anyBoolean(), any())).thenAnswer(invocation -> {
+            invocation.getArgument(1, Consumer.class).accept(report);
+            return report;
+        });
+    }
+
+    @Test
+    void testIncrementalSyncPublishesChangedServices() throws Exception {
+        syncReturns(report(Set.of("a")));
+        MockCatalogService.Candidate candidate = candidate(List.of());
+        when(catalogService.build(Set.of("a"))).thenReturn(candidate);
+        when(catalogService.publish(candidate)).thenReturn(true);
+
+        SyncReport report = job.trigger(false).get(5, TimeUnit.SECONDS);
+
+        assertEquals(Set.of("a"), report.changedServices());
+        verify(catalogService).publish(candidate);
+        verify(catalogService, never()).build();
+        verify(catalogService, never()).refresh(any());
+        FlowableSyncJob.Status status = job.status();
+        assertFalse(status.running());
+        assertSame(report, status.lastReport());
+        assertNull(status.lastError());
+        assertTrue(status.problems().isEmpty());
+        assertNotNull(status.finishedAt());
+    }
+
+    @Test
+    void testStaleCandidateIsRebuilt() throws Exception {
+        syncReturns(report(Set.of("a")));
+        MockCatalogService.Candidate candidate = candidate(List.of());
+        when(catalogService.build()).thenReturn(candidate);
+        when(catalogService.publish(candidate)).thenReturn(false);
+
+        job.trigger(true).get(5, TimeUnit.SECONDS);
+
+        verify(catalogService).refresh();
+    }
+
+    @Test
+    void testCatalogWarningsDoNotStopTheSync() throws Exception {
+        syncReturns(report(Set.of("a")));
+        List<String> problems = List.of("a/none has no method or url and cannot be routed");
+        MockCatalogService.Candidate candidate = candidate(problems);
+        when(catalogService.build(Set.of("a"))).thenReturn(candidate);
+        when(catalogService.publish(candidate)).thenReturn(true);
+        when(catalogService.problems()).thenReturn(problems);
+
+        SyncReport report = job.trigger(false).get(5, TimeUnit.SECONDS);
+
+        verify(catalogService).publish(candidate);
+        FlowableSyncJob.Status status = job.status();
+        assertSame(report, status.lastReport());
+        assertEquals(problems, status.problems());
+        assertNull(status.lastError());
+    }
+
+    @Test
+    void testFailedCatalogBuildRollsBackSync() {
+        syncReturns(report(Set.of("a")));
+        when(catalogService.build(Set.of("a"))).thenThrow(new IllegalStateException("cannot load"));
+
+        CompletableFuture<SyncReport> future = job.trigger(false);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertEquals("cannot load", e.getCause().getMessage());
+        verify(catalogService, never()).publish(any());
+        verify(catalogService, never()).refresh(any());
+        FlowableSyncJob.Status status = job.status();
+        assertEquals("cannot load", status.lastError());
+        assertNull(status.lastReport());
+    }
+
+    @Test
+    void testOnlyOneSyncRunsAtATime() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(client.syncDefinitions(anyBoolean(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return report(Set.of());
+        });
+
+        CompletableFuture<SyncReport> first = job.trigger(false);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<SyncReport> second = job.trigger(true);
+
+        assertSame(first, second);
+        assertTrue(job.isRunning());
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        verify(client, times(1)).syncDefinitions(anyBoolean(), any());
+        assertFalse(job.isRunning());
+    }
+
+    @Test
+    void testFailedSyncLeavesCatalogAlone() {
+        when(client.syncDefinitions(eq(false), any())).thenThrow(new RuntimeException("Sync failed"));
+
+        CompletableFuture<SyncReport> future = job.trigger(false);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertEquals("Sync failed", e.getCause().getMessage());
+        verifyNoInteractions(catalogService);
+        assertEquals("Sync failed", job.status().lastError());
+        assertFalse(job.isRunning());
+    }
+}
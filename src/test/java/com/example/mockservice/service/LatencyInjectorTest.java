@@ -0,0 +1,60 @@
+package com.example.mockservice.service;
+
+import com.example.mockservice.catalog.LatencyProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyInjectorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LatencyInjector injector = new LatencyInjector(meterRegistry, Duration.ofSeconds(1));
+    private final ResponseEntity<Object> entity = ResponseEntity.ok("done");
+
+    @Test
+    void testUndelayedResponsesAreReturnedDirectly() {
+        assertSame(entity, injector.delay(new MockResponse(entity, null, 0)));
+        assertSame(entity, injector.delay(new MockResponse(entity, new LatencyProfile.Fixed(0), 0)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testManyDelayedResponsesShareOneTimer() throws Exception {
+        int threadsBefore = Thread.activeCount();
+        List<CompletableFuture<ResponseEntity<Object>>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            futures.add((CompletableFuture<ResponseEntity<Object>>) injector.delay(
+                    new MockResponse(entity, new LatencyProfile.Fixed(200), 0)));
+        }
+
+        assertEquals(10_000, injector.pending());
+        assertEquals(10_000, meterRegistry.get("mock.latency.pending").gauge().value());
+        assertTrue(Thread.activeCount() <= threadsBefore + 2);
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+        assertSame(entity, futures.get(0).get());
+        assertEquals(0, injector.pending());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDelayIsCapped() throws Exception {
+        LatencyInjector capped = new LatencyInjector(new SimpleMeterRegistry(), Duration.ofMillis(10));
+        long start = System.nanoTime();
+
+        ((CompletableFuture<ResponseEntity<Object>>) capped.delay(
+                new MockResponse(entity, new LatencyProfile.Fixed(60_000), 0))).get(5, TimeUnit.SECONDS);
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+}
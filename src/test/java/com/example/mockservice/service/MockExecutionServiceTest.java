@@ -1,27 +1,30 @@
 package com.example.mockservice.service;
 
+import com.example.mockservice.catalog.MockCatalogService;
 import com.example.mockservice.domain.MockConfiguration;
 import com.example.mockservice.domain.RequestLog;
 import com.example.mockservice.domain.ServiceDefinition;
 import com.example.mockservice.domain.ServiceOperation;
 import com.example.mockservice.repository.MockConfigurationRepository;
-import com.example.mockservice.repository.RequestLogRepository;
 import com.example.mockservice.repository.ServiceDefinitionRepository;
 import com.example.mockservice.repository.ServiceOperationRepository;
 import com.example.mockservice.util.RandomDataGenerator;
 import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 import java.util.List;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -34,7 +37,7 @@ class MockExecutionServiceTest {
     @Mock
     private MockConfigurationRepository mockConfigurationRepository;
     @Mock
-    private RequestLogRepository requestLogRepository;
+    private RequestLogWriter requestLogWriter;
     @Mock
     private RandomDataGenerator randomDataGenerator;
     @org.mockito.Spy
@@ -43,19 +46,27 @@ class MockExecutionServiceTest {
     @InjectMocks
     private MockExecutionService mockExecutionService;
 
+    private MockCatalogService mockCatalogService;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
         // Using the real service with mocks
-        // MockExecutionService(ServiceOperationRepository, MockConfigurationRepository,
-        // MockRuleRepository, RequestLogRepository, RandomDataGenerator, ObjectMapper)
+        // MockExecutionService(ServiceOperationRepository, MockRuleRepository,
+        // RequestLogWriter, RandomDataGenerator, ObjectMapper, MockCatalogService)
+        com.example.mockservice.repository.MockRuleRepository mockRuleRepository = org.mockito.Mockito
+                .mock(com.example.mockservice.repository.MockRuleRepository.class);
+        mockCatalogService = new MockCatalogService(serviceOperationRepository, mockRuleRepository,
+                mockConfigurationRepository, objectMapper);
         mockExecutionService = new MockExecutionService(
                 serviceOperationRepository,
-                mockConfigurationRepository,
-                org.mockito.Mockito.mock(com.example.mockservice.repository.MockRuleRepository.class),
-                requestLogRepository,
+                mockRuleRepository,
+                requestLogWriter,
                 randomDataGenerator,
-                objectMapper);
+                objectMapper,
+                mockCatalogService,
+                new MockMetrics(new SimpleMeterRegistry(), true, 100),
+                new ResponseCache(new SimpleMeterRegistry(), false, 0, java.time.Duration.ZERO));
     }
 
     @Test
@@ -83,22 +94,27 @@ class MockExecutionServiceTest {
         }
         def.getOperations().add(op);
 
-        when(serviceOperationRepository.findByMethodAndUrl("GET", "/test"))
-                .thenReturn(List.of(op));
+        when(serviceOperationRepository.findAllForCatalog()).thenReturn(List.of(op));
+        mockCatalogService.refresh();
+        clearInvocations(serviceOperationRepository);
+        clearInvocations(mockConfigurationRepository);
 
-        when(mockConfigurationRepository.findByOperationId("op1")).thenReturn(Optional.empty());
-        when(randomDataGenerator.generateReflectedOutput(any()))
-                .thenReturn(tools.jackson.databind.node.JsonNodeFactory.instance.objectNode());
+        when(randomDataGenerator.generate(any())).thenReturn("{}".getBytes());
 
         ResponseEntity<Object> response = mockExecutionService.executeMock("GET", "/test", null, null);
 
         assertEquals(200, response.getStatusCode().value());
-        verify(requestLogRepository).save(any(RequestLog.class));
+        // Generated bodies change per request, so they carry no ETag
+        assertNull(response.getHeaders().getETag());
+        verify(requestLogWriter).submit(any(RequestLog.class));
+        // Served from the catalog snapshot without touching JPA
+        verifyNoInteractions(serviceOperationRepository, mockConfigurationRepository);
     }
 
     @Test
     void executeMock_OperationNotFound_Returns404() {
-        when(serviceOperationRepository.findByMethodAndUrl(any(), any())).thenReturn(List.of());
+        when(serviceOperationRepository.findAllForCatalog()).thenReturn(List.of());
+        mockCatalogService.refresh();
 
         ResponseEntity<Object> response = mockExecutionService.executeMock("GET", "/unknown", null, null);
 
@@ -116,14 +132,14 @@ class MockExecutionServiceTest {
         op.setUrl("/api/data");
         op.setServiceDefinition(def);
 
-        when(serviceOperationRepository.findByMethodAndUrl("POST", "/api/data"))
-                .thenReturn(List.of(op));
-
         MockConfiguration config = new MockConfiguration();
+        config.setOperationId("op1");
         config.setHttpStatus(201);
         config.setCustomResponseBody("{\"status\":\"created\"}");
 
-        when(mockConfigurationRepository.findByOperationId("op1")).thenReturn(Optional.of(config));
+        when(serviceOperationRepository.findAllForCatalog()).thenReturn(List.of(op));
+        when(mockConfigurationRepository.findAll()).thenReturn(List.of(config));
+        mockCatalogService.refresh();
 
         // Spy uses real ObjectMapper, so readTree works automatically on valid JSON
         JsonNode mockJson = objectMapper.readTree("{\"status\":\"created\"}");
@@ -131,6 +147,35 @@ class MockExecutionServiceTest {
         ResponseEntity<Object> response = mockExecutionService.executeMock("POST", "/api/data", "{}", null);
 
         assertEquals(201, response.getStatusCode().value());
-        assertEquals(mockJson, response.getBody());
+        assertEquals(mockJson, objectMapper.readTree((byte[]) response.getBody()));
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals(((byte[]) response.getBody()).length, response.getHeaders().getContentLength());
+        assertNotNull(response.getHeaders().getETag());
+    }
+
+    @Test
+    void executeMock_StaticConfiguration_NeverParsesBody() {
+        ServiceOperation op = new ServiceOperation();
+        op.setId("op1");
+        op.setMethod("POST");
+        op.setUrl("/api/data");
+
+        MockConfiguration config = new MockConfiguration();
+        config.setOperationId("op1");
+        config.setHttpStatus(202);
+        config.setCustomResponseBody("{\"status\":\"accepted\"}");
+
+        when(serviceOperationRepository.findAllForCatalog()).thenReturn(List.of(op));
+        when(mockConfigurationRepository.findAll()).thenReturn(List.of(config));
+        mockCatalogService.refresh();
+        clearInvocations(objectMapper);
+
+        byte[] body = "{\"items\":[1,2,3]}".getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        ResponseEntity<Object> response = mockExecutionService.executeMock(
+                new MockRequest("POST", "/api/data", body, null, null));
+
+        assertEquals(202, response.getStatusCode().value());
+        verify(objectMapper, never()).readTree(any(byte[].class));
+        verify(objectMapper, never()).readTree(anyString());
     }
 }
@@ -0,0 +1,55 @@
+package com.example.mockservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MockMetricsTest {
+
+    @Test
+    void testStagesAndInvocationsAreRecorded() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MockMetrics metrics = new MockMetrics(registry, true, 100);
+
+        long start = metrics.start();
+        long next = metrics.stage(MockMetrics.Stage.ROUTE, start);
+        metrics.stage(MockMetrics.Stage.RULES, next);
+        metrics.request("employees", "getEmployee", "rule-1", 404, start);
+        metrics.request("employees", "getEmployee", null, 200, start);
+
+        assertEquals(1, registry.get("mock.request.stage").tag("stage", "route").timer().count());
+        assertEquals(1, registry.get("mock.request.stage").tag("stage", "rules").timer().count());
+        assertEquals(1, registry.get("mock.request").tag("service", "employees").tag("operation", "getEmployee")
+                .tag("rule", "rule-1").tag("status", "404").timer().count());
+        assertEquals(1, registry.get("mock.request").tag("rule", MockMetrics.NONE).tag("status", "200").timer()
+                .count());
+    }
+
+    @Test
+    void testSeriesAreCappedUnderOther() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MockMetrics metrics = new MockMetrics(registry, true, 3);
+
+        for (int i = 0; i < 10; i++) {
+            metrics.request("service", "op-" + i, null, 200, metrics.start());
+        }
+
+        assertEquals(4, registry.get("mock.request").timers().size());
+        assertEquals(7, registry.get("mock.request").tag("operation", MockMetrics.OTHER).timer().count());
+        assertEquals(7, registry.get("mock.request.series.overflow").counter().count());
+    }
+
+    @Test
+    void testDisabledRegistersNothing() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MockMetrics metrics = new MockMetrics(registry, false, 100);
+
+        long start = metrics.start();
+        metrics.stage(MockMetrics.Stage.LOG, start);
+        metrics.request("service", "op", null, 200, start);
+
+        assertEquals(0, start);
+        assertTrue(registry.getMeters().isEmpty());
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.mockservice.service;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MockRequestTest {
+
+    @Test
+    void testOnlyReferencedFieldsAreExtracted() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        MockRequest request = MockRequest.of("POST", "/api/employee", "{\"employeeId\":\"999\","
+                + "\"payload\":{\"items\":[1,2,3],\"note\":\"x\"},\"address\":{\"city\":\"Berlin\"}}", null);
+
+        ObjectNode fields = request.bodyFields(objectMapper, Set.of("employeeId", "address", "missing"));
+
+        assertEquals(Set.of("employeeId", "address"), fields.propertyNames());
+        assertEquals("999", fields.get("employeeId").asString());
+        assertEquals("Berlin", fields.get("address").get("city").asString());
+    }
+
+    @Test
+    void testInvalidOrMissingBodyHasNoFields() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Set<String> names = Set.of("a");
+
+        assertNull(MockRequest.of("POST", "/api", "not json", null).bodyFields(objectMapper, names));
+        assertNull(MockRequest.of("POST", "/api", "{\"a\":1,\"b\":[}", null).bodyFields(objectMapper, names));
+        assertNull(MockRequest.of("POST", "/api", "{\"a\":1} {}", null).bodyFields(objectMapper, names));
+        assertNull(MockRequest.of("GET", "/api", null, null).bodyFields(objectMapper, names));
+        assertFalse(MockRequest.of("GET", "/api", "", null).hasBody());
+        // Valid JSON that is not an object has no fields, but is still a JSON body
+        assertTrue(MockRequest.of("POST", "/api", "[{\"a\":1}]", null).bodyFields(objectMapper, names).isEmpty());
+    }
+
+    @Test
+    void testBodyTextKeepsBytesAndCharset() {
+        byte[] latin1 = "{\"name\":\"José\"}\r\n".getBytes(StandardCharsets.ISO_8859_1);
+        MockRequest request = new MockRequest("POST", "/api", latin1, StandardCharsets.ISO_8859_1, null);
+
+        // Line separators are preserved as sent
+        assertEquals("{\"name\":\"José\"}\r\n", request.bodyText());
+    }
+}
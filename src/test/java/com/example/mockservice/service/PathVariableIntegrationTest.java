@@ -1,13 +1,14 @@
 package com.example.mockservice.service;
 
+import com.example.mockservice.catalog.MockCatalogService;
 import com.example.mockservice.domain.MockRule;
 import com.example.mockservice.domain.ServiceDefinition;
 import com.example.mockservice.domain.ServiceOperation;
 import com.example.mockservice.repository.MockConfigurationRepository;
 import com.example.mockservice.repository.MockRuleRepository;
-import com.example.mockservice.repository.RequestLogRepository;
 import com.example.mockservice.repository.ServiceOperationRepository;
 import com.example.mockservice.util.RandomDataGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,6 +18,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import tools.jackson.databind.ObjectMapper;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,24 +38,29 @@ class PathVariableIntegrationTest {
         private MockRuleRepository mockRuleRepository;
 
         @Mock
-        private RequestLogRepository requestLogRepository;
+        private RequestLogWriter requestLogWriter;
 
         @Mock
         private RandomDataGenerator randomDataGenerator;
 
         private ObjectMapper objectMapper;
+        private MockCatalogService mockCatalogService;
         private MockExecutionService mockExecutionService;
 
         @BeforeEach
         void setUp() {
                 objectMapper = new ObjectMapper();
+                mockCatalogService = new MockCatalogService(serviceOperationRepository, mockRuleRepository,
+                                mockConfigurationRepository, objectMapper);
                 mockExecutionService = new MockExecutionService(
                                 serviceOperationRepository,
-                                mockConfigurationRepository,
                                 mockRuleRepository,
-                                requestLogRepository,
+                                requestLogWriter,
                                 randomDataGenerator,
-                                objectMapper);
+                                objectMapper,
+                                mockCatalogService,
+                                new MockMetrics(new SimpleMeterRegistry(), true, 100),
+                                new ResponseCache(new SimpleMeterRegistry(), false, 0, java.time.Duration.ZERO));
         }
 
         @Test
@@ -74,18 +81,11 @@ class PathVariableIntegrationTest {
                                 "[{\"name\":\"id\",\"type\":\"string\"},{\"name\":\"name\",\"type\":\"string\"}]");
 
                 // Mock repository responses
-                when(serviceOperationRepository.findByMethodAndUrl("GET", "/api/employee/123"))
-                                .thenReturn(Collections.emptyList());
-                when(serviceOperationRepository.findByMethod("GET"))
+                when(serviceOperationRepository.findAllForCatalog())
                                 .thenReturn(Arrays.asList(operation));
-                when(mockConfigurationRepository.findByOperationId("op-1"))
-                                .thenReturn(Optional.empty());
-                when(mockRuleRepository.findByServiceOperationIdOrderByPriorityAsc("op-1"))
-                                .thenReturn(Collections.emptyList());
-                when(randomDataGenerator.generateReflectedOutput(anyString()))
-                                .thenReturn(objectMapper.createObjectNode()
-                                                .put("id", "123")
-                                                .put("name", "John Doe"));
+                mockCatalogService.refresh();
+                when(randomDataGenerator.generate(any()))
+                                .thenReturn("{\"id\":\"123\",\"name\":\"John Doe\"}".getBytes(StandardCharsets.UTF_8));
 
                 // Execute
                 ResponseEntity<Object> response = mockExecutionService.executeMock(
@@ -98,9 +98,9 @@ class PathVariableIntegrationTest {
                 assertEquals(HttpStatus.OK, response.getStatusCode());
                 assertNotNull(response.getBody());
 
-                // Verify that the path variable was extracted (check logs)
-                verify(serviceOperationRepository).findByMethodAndUrl("GET", "/api/employee/123");
-                verify(serviceOperationRepository).findByMethod("GET");
+                // Verify the route was resolved from the catalog, not per-request queries
+                verify(serviceOperationRepository, never()).findByMethodAndUrl(anyString(), anyString());
+                verify(serviceOperationRepository, never()).findByMethod(anyString());
         }
 
         @Test
@@ -119,19 +119,12 @@ class PathVariableIntegrationTest {
                 operation.setServiceDefinition(service);
                 operation.setOutputParametersJson("[]");
 
-                when(serviceOperationRepository.findByMethodAndUrl("GET", "/api/department/HR/employee/456"))
-                                .thenReturn(Collections.emptyList());
-                when(serviceOperationRepository.findByMethod("GET"))
+                when(serviceOperationRepository.findAllForCatalog())
                                 .thenReturn(Arrays.asList(operation));
-                when(mockConfigurationRepository.findByOperationId("op-2"))
-                                .thenReturn(Optional.empty());
-                when(mockRuleRepository.findByServiceOperationIdOrderByPriorityAsc("op-2"))
-                                .thenReturn(Collections.emptyList());
-                when(randomDataGenerator.generateReflectedOutput(anyString()))
-                                .thenReturn(objectMapper.createObjectNode()
-                                                .put("id", "456")
-                                                .put("name", "Jane Smith")
-                                                .put("department", "HR"));
+                mockCatalogService.refresh();
+                when(randomDataGenerator.generate(any()))
+                                .thenReturn("{\"id\":\"456\",\"name\":\"Jane Smith\",\"department\":\"HR\"}"
+                                                .getBytes(StandardCharsets.UTF_8));
 
                 // Execute
                 ResponseEntity<Object> response = mockExecutionService.executeMock(
@@ -170,14 +163,11 @@ class PathVariableIntegrationTest {
                 rule.setResponseBody("{\"error\":\"Employee not found\"}");
                 rule.setPriority(1);
 
-                when(serviceOperationRepository.findByMethodAndUrl("GET", "/api/employee/999"))
-                                .thenReturn(Collections.emptyList());
-                when(serviceOperationRepository.findByMethod("GET"))
+                when(serviceOperationRepository.findAllForCatalog())
                                 .thenReturn(Arrays.asList(operation));
-                when(mockConfigurationRepository.findByOperationId("op-3"))
-                                .thenReturn(Optional.empty());
-                when(mockRuleRepository.findByServiceOperationIdOrderByPriorityAsc("op-3"))
+                when(mockRuleRepository.findAllByOrderByPriorityAsc())
                                 .thenReturn(Arrays.asList(rule));
+                mockCatalogService.refresh();
 
                 // Execute
                 ResponseEntity<Object> response = mockExecutionService.executeMock(
@@ -189,7 +179,7 @@ class PathVariableIntegrationTest {
                 // Verify - should match the rule and return 404
                 assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
                 assertNotNull(response.getBody());
-                assertTrue(response.getBody().toString().contains("Employee not found"));
+                assertTrue(new String((byte[]) response.getBody(), StandardCharsets.UTF_8).contains("Employee not found"));
         }
 
         @Test
@@ -217,14 +207,11 @@ class PathVariableIntegrationTest {
                 rule.setResponseBody("{\"id\":\"123\",\"name\":\"John Doe\",\"details\":{\"age\":30}}");
                 rule.setPriority(1);
 
-                when(serviceOperationRepository.findByMethodAndUrl("GET", "/api/employee/123"))
-                                .thenReturn(Collections.emptyList());
-                when(serviceOperationRepository.findByMethod("GET"))
+                when(serviceOperationRepository.findAllForCatalog())
                                 .thenReturn(Arrays.asList(operation));
-                when(mockConfigurationRepository.findByOperationId("op-4"))
-                                .thenReturn(Optional.empty());
-                when(mockRuleRepository.findByServiceOperationIdOrderByPriorityAsc("op-4"))
+                when(mockRuleRepository.findAllByOrderByPriorityAsc())
                                 .thenReturn(Arrays.asList(rule));
+                mockCatalogService.refresh();
 
                 // Execute with query parameter
                 Map<String, String[]> queryParams = new HashMap<>();
@@ -239,7 +226,7 @@ class PathVariableIntegrationTest {
                 // Verify - should match the rule with both path variable and query param
                 assertEquals(HttpStatus.OK, response.getStatusCode());
                 assertNotNull(response.getBody());
-                assertTrue(response.getBody().toString().contains("\"age\":30"));
+                assertTrue(new String((byte[]) response.getBody(), StandardCharsets.UTF_8).contains("\"age\":30"));
         }
 
         @Test
@@ -257,6 +244,7 @@ class PathVariableIntegrationTest {
                 exactOp.setUrl("/api/employee/special");
                 exactOp.setServiceDefinition(service);
                 exactOp.setOutputParametersJson("[]");
+                exactOp.setDefaultResponseBody("{\"type\":\"special\"}");
 
                 ServiceOperation variableOp = new ServiceOperation();
                 variableOp.setId("op-variable");
@@ -266,19 +254,12 @@ class PathVariableIntegrationTest {
                 variableOp.setUrl("/api/employee/${employeeId}");
                 variableOp.setServiceDefinition(service);
                 variableOp.setOutputParametersJson("[]");
+                variableOp.setDefaultResponseBody("{\"type\":\"variable\"}");
 
-                // Configure exact match to return specific operation
-                when(serviceOperationRepository.findByMethodAndUrl("GET", "/api/employee/special"))
-                                .thenReturn(Arrays.asList(exactOp));
-                when(mockConfigurationRepository.findByOperationId("op-exact"))
-                                .thenReturn(Optional.empty());
-                when(mockRuleRepository.findByServiceOperationIdOrderByPriorityAsc("op-exact"))
-                                .thenReturn(Collections.emptyList());
-                when(randomDataGenerator.generateReflectedOutput(anyString()))
-                                .thenReturn(objectMapper.createObjectNode()
-                                                .put("type", "special")
-                                                .put("id", "special"));
-
+                // Both operations are in the catalog; the exact url must win
+                when(serviceOperationRepository.findAllForCatalog())
+                                .thenReturn(Arrays.asList(variableOp, exactOp));
+                mockCatalogService.refresh();
                 // Execute
                 ResponseEntity<Object> response = mockExecutionService.executeMock(
                                 "GET",
@@ -288,8 +269,8 @@ class PathVariableIntegrationTest {
 
                 // Verify - should use exact match, not pattern match
                 assertEquals(HttpStatus.OK, response.getStatusCode());
-                verify(serviceOperationRepository).findByMethodAndUrl("GET", "/api/employee/special");
-                // Should NOT call findByMethod since exact match was found
-                verify(serviceOperationRepository, never()).findByMethod(anyString());
+                assertEquals("{\"type\":\"special\"}", new String((byte[]) response.getBody(), StandardCharsets.UTF_8));
+                // Default bodies are pre-serialized, nothing is generated per request
+                verify(randomDataGenerator, never()).generate(any());
         }
 }
@@ -0,0 +1,67 @@
+package com.example.mockservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestLogRetentionTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("create table request_log (response_status integer not null, timestamp timestamp(6), "
+                + "id varchar(255) not null, operation_name varchar(255), request_body TEXT, response_body TEXT, "
+                + "service_name varchar(255), primary key (id))");
+    }
+
+    private void insert(int count, LocalDateTime timestamp) {
+        for (int i = 0; i < count; i++) {
+            jdbcTemplate.update("insert into request_log (id, timestamp, response_status) values (?, ?, 200)",
+                    UUID.randomUUID().toString(), Timestamp.valueOf(timestamp.plusNanos(i * 1000L)));
+        }
+    }
+
+    private long rows() {
+        return jdbcTemplate.queryForObject("select count(*) from request_log", Long.class);
+    }
+
+    @Test
+    void testRowLimitEvictsOldestInChunks() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        insert(25, now.minusMinutes(5));
+        insert(10, now);
+
+        RequestLogRetention retention = new RequestLogRetention(jdbcTemplate, new SimpleMeterRegistry(), 10,
+                Duration.ZERO, 4);
+
+        assertEquals(25, retention.evict());
+        assertEquals(10, rows());
+        assertEquals(10, jdbcTemplate.queryForObject(
+                "select count(*) from request_log where timestamp >= ?", Long.class, Timestamp.valueOf(now)));
+    }
+
+    @Test
+    void testAgeLimitEvictsExpiredRows() {
+        insert(7, LocalDateTime.now().minusHours(2));
+        insert(3, LocalDateTime.now());
+
+        RequestLogRetention retention = new RequestLogRetention(jdbcTemplate, new SimpleMeterRegistry(), 0,
+                Duration.ofHours(1), 2);
+
+        assertEquals(7, retention.evict());
+        assertEquals(3, rows());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.mockservice.service;
+
+import com.example.mockservice.domain.RequestLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestLogServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private RequestLogService requestLogService;
+    private final LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("create table request_log (response_status integer not null, timestamp timestamp(6), "
+                + "id varchar(255) not null, operation_name varchar(255), request_body TEXT, response_body TEXT, "
+                + "service_name varchar(255), primary key (id))");
+        requestLogService = new RequestLogService(jdbcTemplate, new ObjectMapper());
+
+        // Rows 0 and 1 share a timestamp to exercise the id tie-breaker
+        for (int i = 0; i < 7; i++) {
+            jdbcTemplate.update("insert into request_log (id, service_name, operation_name, timestamp, "
+                    + "response_status) values (?, ?, ?, ?, ?)",
+                    "id-" + i, i % 2 == 0 ? "Even" : "Odd", "op " + i,
+                    Timestamp.valueOf(base.plusSeconds(Math.max(0, i - 1))), i == 3 ? 500 : 200);
+        }
+    }
+
+    private RequestLogService.Filter noFilter() {
+        return new RequestLogService.Filter(null, null, null, null, null);
+    }
+
+    @Test
+    void testKeysetPagesCoverEveryRowOnce() {
+        Set<String> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            RequestLogService.Page page = requestLogService.page(noFilter(), cursor, 3);
+            page.logs().forEach(log -> assertTrue(seen.add(log.getId())));
+            cursor = page.next();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(7, seen.size());
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void testNewestFirst() {
+        RequestLogService.Page page = requestLogService.page(noFilter(), null, 2);
+        assertEquals("id-6", page.logs().get(0).getId());
+        assertEquals("id-5", page.logs().get(1).getId());
+    }
+
+    @Test
+    void testTamperedCursorsAreRejected() {
+        for (String cursor : new String[] { "not base64!", encode("no separator"), encode("yesterday|id-3") }) {
+            assertThrows(IllegalArgumentException.class, () -> requestLogService.page(noFilter(), cursor, 3),
+                    cursor);
+        }
+    }
+
+    private static String encode(String position) {
+        return java.util.Base64.getUrlEncoder().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testFilters() {
+        assertEquals(4, requestLogService.page(
+                new RequestLogService.Filter("Even", null, null, null, null), null, 50).logs().size());
+        assertEquals(1, requestLogService.page(
+                new RequestLogService.Filter(null, null, 500, null, null), null, 50).logs().size());
+        assertEquals(3, requestLogService.page(
+                new RequestLogService.Filter(null, null, null, base.plusSeconds(3), null), null, 50).logs().size());
+    }
+
+    @Test
+    void testOperationFilterTreatsWildcardsAsText() {
+        for (String name : new String[] { "get_user", "getXuser", "100% done" }) {
+            jdbcTemplate.update("insert into request_log (id, operation_name, timestamp, response_status) "
+                    + "values (?, ?, ?, 200)", name, name, Timestamp.valueOf(base));
+        }
+
+        assertEquals(List.of("get_user"), operationNames("get_user"));
+        assertEquals(List.of("100% done"), operationNames("0% d"));
+        assertEquals(List.of(), operationNames("get%user"));
+    }
+
+    private List<String> operationNames(String operation) {
+        return requestLogService.page(new RequestLogService.Filter(null, operation, null, null, null), null, 50)
+                .logs().stream().map(RequestLog::getOperationName).toList();
+    }
+
+    @Test
+    void testNdjsonExport() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        requestLogService.exportNdjson(new RequestLogService.Filter("Odd", null, null, null, null), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":\"id-5\""));
+    }
+}
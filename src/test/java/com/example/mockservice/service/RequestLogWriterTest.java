@@ -0,0 +1,109 @@
+package com.example.mockservice.service;
+
+import com.example.mockservice.domain.RequestLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestLogWriterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("create table request_log (response_status integer not null, timestamp timestamp(6), "
+                + "id varchar(255) not null, operation_name varchar(255), request_body TEXT, response_body TEXT, "
+                + "service_name varchar(255), primary key (id))");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private RequestLogWriter writer(int capacity, RequestLogWriter.OverflowPolicy policy) {
+        return new RequestLogWriter(jdbcTemplate, meterRegistry, capacity, 16, 5, policy, 2, 50, 0,
+                RequestLogWriter.BodyOverflow.TRUNCATE);
+    }
+
+    private RequestLog entry(int i) {
+        RequestLog log = new RequestLog();
+        log.setServiceName("Service");
+        log.setOperationName("op " + i);
+        log.setRequestBody("{}");
+        log.setResponseBody("{\"i\":" + i + "}");
+        log.setResponseStatus(200);
+        return log;
+    }
+
+    private int rows() {
+        return jdbcTemplate.queryForObject("select count(*) from request_log", Integer.class);
+    }
+
+    @Test
+    void testBatchesAreWrittenInBackground() {
+        RequestLogWriter writer = writer(128, RequestLogWriter.OverflowPolicy.DROP);
+        writer.start();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(writer.submit(entry(i)));
+        }
+        writer.stop();
+
+        assertEquals(100, rows());
+        assertEquals(100, meterRegistry.get("mock.request.log.written").counter().count());
+    }
+
+    @Test
+    void testDropPolicyDiscardsWhenFull() {
+        RequestLogWriter writer = writer(4, RequestLogWriter.OverflowPolicy.DROP);
+        for (int i = 0; i < 6; i++) {
+            writer.submit(entry(i));
+        }
+
+        assertEquals(4, writer.queued());
+        assertEquals(2, meterRegistry.get("mock.request.log.dropped").tag("reason", "overflow").counter().count());
+    }
+
+    @Test
+    void testSamplePolicyThinsEventsOnceHalfFull() {
+        RequestLogWriter writer = writer(8, RequestLogWriter.OverflowPolicy.SAMPLE);
+        for (int i = 0; i < 8; i++) {
+            writer.submit(entry(i));
+        }
+
+        // First 4 fill half the buffer, then every second event is kept
+        assertEquals(6, writer.queued());
+        assertEquals(2, meterRegistry.get("mock.request.log.dropped").tag("reason", "sampled").counter().count());
+    }
+
+    @Test
+    void testBlockPolicyWaitsForWriter() {
+        RequestLogWriter writer = writer(4, RequestLogWriter.OverflowPolicy.BLOCK);
+        writer.start();
+        for (int i = 0; i < 200; i++) {
+            assertTrue(writer.submit(entry(i)));
+        }
+        writer.stop();
+
+        assertEquals(200, rows());
+    }
+
+    @Test
+    void testLongBodiesAreTruncatedOrHashed() {
+        RequestLogWriter truncating = new RequestLogWriter(jdbcTemplate, meterRegistry, 4, 16, 5,
+                RequestLogWriter.OverflowPolicy.DROP, 2, 50, 8, RequestLogWriter.BodyOverflow.TRUNCATE);
+        RequestLogWriter hashing = new RequestLogWriter(jdbcTemplate, new SimpleMeterRegistry(), 4, 16, 5,
+                RequestLogWriter.OverflowPolicy.DROP, 2, 50, 8, RequestLogWriter.BodyOverflow.HASH);
+
+        assertEquals("short", truncating.limitBody("short"));
+        assertEquals("abcdefgh...[truncated 4 bytes]", truncating.limitBody("abcdefghijkl"));
+        // "é" is two bytes in UTF-8 and must not be split
+        assertEquals("abcdefg...[truncated 4 bytes]", truncating.limitBody("abcdefgé12"));
+        assertTrue(hashing.limitBody("abcdefghijkl").matches("sha256:[0-9a-f]{64} \\(12 bytes\\)"));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.mockservice.service;
+
+import com.example.mockservice.catalog.RuleCondition;
+import com.example.mockservice.util.PathTrie;
+import com.example.mockservice.util.PathVariables;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestRuleInputTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static PathVariables employee(String id) {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.insert("/api/employee/${employeeId}", "op");
+        PathTrie.Match<String> match = trie.find("/api/employee/" + id);
+        return match.variables(match.getRoutes().get(0));
+    }
+
+    @Test
+    void testPathVariablesOverrideBodyFields() {
+        MockRequest request = MockRequest.of("POST", "/api/employee/7",
+                "{\"employeeId\":\"1\",\"order\":{\"total\":250}}", Map.of("q", new String[] { "x" }));
+        ObjectNode fields = request.bodyFields(objectMapper, Set.of("employeeId", "order"));
+        RequestRuleInput input = new RequestRuleInput(employee("7"), fields, request.getQueryParams(),
+                name -> null);
+
+        assertEquals("7", input.get("employeeId").asString());
+        // Query parameters are ignored when there is a JSON body
+        assertNull(input.get("q"));
+        assertTrue(RuleCondition.compile("{\"employeeId\":\"7\",\"/order/total\":\">200\"}", objectMapper)
+                .matches(input));
+    }
+
+    @Test
+    void testQueryParametersWithoutBody() {
+        RequestRuleInput input = new RequestRuleInput(employee("7"), null,
+                Map.of("includeDetails", new String[] { "true", "false" }, "employeeId", new String[] { "1" }),
+                Map.of("X-Tenant", "acme")::get);
+
+        assertEquals("true", input.get("includeDetails").asString());
+        assertEquals("7", input.get("employeeId").asString());
+        assertEquals("acme", input.header("X-Tenant"));
+        assertNull(input.get("missing"));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.mockservice.service;
+
+import com.example.mockservice.catalog.CachedBody;
+import com.example.mockservice.catalog.CatalogOperation;
+import com.example.mockservice.catalog.CompiledConfig;
+import com.example.mockservice.catalog.RuleIndex;
+import com.example.mockservice.util.OutputSchema;
+import com.example.mockservice.util.PathTrie;
+import com.example.mockservice.util.PathVariables;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    private final CatalogOperation op = operation(null);
+
+    private static CatalogOperation operation(CompiledConfig config) {
+        return new CatalogOperation("op-1", "getEmployee", "Get Employee", "GET", "/api/employee/${employeeId}",
+                "svc-1", "employees", "Employees", "[]", OutputSchema.compile("[]", new ObjectMapper()), null,
+                config, RuleIndex.of(List.of()));
+    }
+
+    private static CompiledConfig caching(Boolean cacheResponses) {
+        return new CompiledConfig("c-1", "op-1", 200, null, null, 0, cacheResponses);
+    }
+
+    private final AtomicInteger generated = new AtomicInteger();
+
+    private final Supplier<CachedBody> generator = () -> CachedBody
+            .generated(("{\"n\":" + generated.incrementAndGet() + "}").getBytes(StandardCharsets.UTF_8));
+
+    private static PathVariables employee(String id) {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.insert("/api/employee/${employeeId}", "op-1");
+        PathTrie.Match<String> match = trie.find("/api/employee/" + id);
+        return match.variables(match.getRoutes().get(0));
+    }
+
+    @Test
+    void testRepeatedRequestsSkipGeneration() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ResponseCache cache = new ResponseCache(registry, true, 1 << 20, Duration.ofMinutes(1));
+
+        CachedBody first = cache.get(op, employee("1"), Map.of("q", new String[] { "x" }), generator);
+        CachedBody again = cache.get(op, employee("1"), Map.of("q", new String[] { "x" }), generator);
+        CachedBody other = cache.get(op, employee("2"), Map.of("q", new String[] { "x" }), generator);
+
+        assertSame(first, again);
+        assertNotSame(first, other);
+        assertEquals(2, generated.get());
+        assertEquals(1, registry.get("cache.gets").tag("cache", "mock.response").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(2, registry.get("cache.gets").tag("cache", "mock.response").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void testTotalBytesAreCapped() {
+        ResponseCache cache = new ResponseCache(new SimpleMeterRegistry(), true, 2_000, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 100; i++) {
+            cache.get(op, employee(Integer.toString(i)), null, generator);
+        }
+
+        // Each entry weighs a little over 100 bytes
+        assertTrue(cache.estimatedSize() < 20, () -> "size " + cache.estimatedSize());
+    }
+
+    @Test
+    void testRequestsAreKeyedByEveryParameter() {
+        ResponseCache cache = new ResponseCache(new SimpleMeterRegistry(), true, 1 << 20, Duration.ofMinutes(1));
+
+        // Same characters split differently between name and value, and a parameter without a value
+        cache.get(op, employee("1"), Map.of("ab", new String[] { "c" }), generator);
+        cache.get(op, employee("1"), Map.of("a", new String[] { "bc" }), generator);
+        cache.get(op, employee("1"), Map.of("a", new String[0]), generator);
+
+        assertEquals(3, generated.get());
+    }
+
+    @Test
+    void testOperationConfigurationOverridesDefault() {
+        ResponseCache off = new ResponseCache(new SimpleMeterRegistry(), false, 1 << 20, Duration.ofMinutes(1));
+        CatalogOperation optedIn = operation(caching(true));
+
+        off.get(optedIn, employee("1"), null, generator);
+        off.get(optedIn, employee("1"), null, generator);
+        assertEquals(1, generated.get());
+        assertTrue(off.isEnabled(optedIn));
+        assertFalse(off.isEnabled(operation(caching(null))));
+
+        ResponseCache on = new ResponseCache(new SimpleMeterRegistry(), true, 1 << 20, Duration.ofMinutes(1));
+        CatalogOperation optedOut = operation(caching(false));
+
+        on.get(optedOut, employee("1"), null, generator);
+        on.get(optedOut, employee("1"), null, generator);
+        assertEquals(3, generated.get());
+        assertTrue(on.isEnabled(operation(caching(null))));
+    }
+
+    @Test
+    void testDisabledAlwaysGenerates() {
+        ResponseCache cache = new ResponseCache(new SimpleMeterRegistry(), false, 1 << 20, Duration.ofMinutes(1));
+
+        cache.get(op, employee("1"), null, generator);
+        cache.get(op, employee("1"), null, generator);
+
+        assertFalse(cache.isEnabled(op));
+        assertEquals(2, generated.get());
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.mockservice.service;
+
+import com.example.mockservice.catalog.LatencyProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ThrottledResponseWriterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ThrottledResponseWriter writer = new ThrottledResponseWriter(
+            new LatencyInjector(meterRegistry, Duration.ofSeconds(30)), meterRegistry);
+
+    private final RecordingOutputStream out = new RecordingOutputStream();
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        request = mock(HttpServletRequest.class);
+        response = mock(HttpServletResponse.class);
+        AsyncContext context = mock(AsyncContext.class);
+        when(request.startAsync()).thenReturn(context);
+        when(context.getResponse()).thenReturn(response);
+        when(response.getOutputStream()).thenReturn(out);
+        // Dispatches run inline; the container would hand them to one of its threads
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(context).start(any());
+        doAnswer(invocation -> {
+            completed.countDown();
+            return null;
+        }).when(context).complete();
+    }
+
+    private static MockResponse response(byte[] body, LatencyProfile latency, int bandwidth) {
+        return new MockResponse(ResponseEntity.status(201)
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(body.length)
+                .body(body), latency, bandwidth);
+    }
+
+    @Test
+    void testStreamsChunksAtTheBandwidthAfterTheFirstByteDelay() throws Exception {
+        byte[] body = new byte[1000];
+        Arrays.fill(body, (byte) 'x');
+        long start = System.nanoTime();
+
+        writer.write(request, response(body, new LatencyProfile.Fixed(100), 2000));
+
+        assertEquals(1, writer.active());
+        assertEquals(1, meterRegistry.get("mock.stream.active").gauge().value());
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 200-byte chunks due 0, 100, ..., 400 ms after the 100 ms first-byte delay
+        assertArrayEquals(body, out.bytes.toByteArray());
+        assertEquals(5, out.flushes);
+        assertTrue(out.firstFlushMillis - TimeUnit.NANOSECONDS.toMillis(start) >= 100);
+        assertTrue(elapsed >= 500, "took " + elapsed + " ms");
+        assertEquals(0, writer.active());
+
+        verify(response).setStatus(201);
+        verify(response).addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        verify(response, never()).addHeader(eq(HttpHeaders.CONTENT_LENGTH), anyString());
+    }
+
+    @Test
+    void testWaitsForTheContainerWhenTheClientIsSlow() throws Exception {
+        out.ready = false;
+        writer.write(request, response("{\"a\":1}".getBytes(), null, 1_000_000));
+
+        Thread.sleep(50);
+        assertEquals(0, out.bytes.size());
+        out.ready = true;
+        out.listener.onWritePossible();
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals("{\"a\":1}", out.bytes.toString());
+    }
+
+    @Test
+    void testWriteErrorsEndTheStream() throws Exception {
+        out.ready = false;
+        writer.write(request, response(new byte[100], null, 10));
+
+        out.listener.onError(new IOException("Connection reset"));
+
+        assertTrue(completed.await(1, TimeUnit.SECONDS));
+        assertEquals(0, writer.active());
+    }
+
+    @Test
+    void testDueTimesFollowTheBandwidth() {
+        assertEquals(100, ThrottledResponseWriter.dueNanos(100, 0, 10));
+        assertEquals(100 + TimeUnit.SECONDS.toNanos(2), ThrottledResponseWriter.dueNanos(100, 20, 10));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1), ThrottledResponseWriter.dueNanos(0, 1024, 1024 * 1000));
+    }
+
+    /** Output stream that calls the listener at once if it is ready, as a container does. */
+    private static final class RecordingOutputStream extends ServletOutputStream {
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        volatile boolean ready = true;
+        volatile WriteListener listener;
+        volatile int flushes;
+        volatile long firstFlushMillis;
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            listener = writeListener;
+            try {
+                writeListener.onWritePossible();
+            } catch (IOException e) {
+                writeListener.onError(e);
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            bytes.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes.write(b, off, len);
+        }
+
+        @Override
+        public void flush() {
+            if (flushes++ == 0) {
+                firstFlushMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+            }
+        }
+    }
+}
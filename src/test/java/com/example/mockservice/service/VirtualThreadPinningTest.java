@@ -0,0 +1,109 @@
+package com.example.mockservice.service;
+
+import com.example.mockservice.catalog.MockCatalogService;
+import com.example.mockservice.domain.MockRule;
+import com.example.mockservice.domain.ServiceDefinition;
+import com.example.mockservice.domain.ServiceOperation;
+import com.example.mockservice.repository.MockConfigurationRepository;
+import com.example.mockservice.repository.MockRuleRepository;
+import com.example.mockservice.repository.ServiceOperationRepository;
+import com.example.mockservice.util.RandomDataGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Serves mocks from virtual threads while JFR records
+ * jdk.VirtualThreadPinned. Rule evaluation and request logging (with a tiny
+ * BLOCK buffer, so submitters really park) must never pin a carrier.
+ */
+class VirtualThreadPinningTest {
+
+    @Test
+    void testServingPathDoesNotPinCarrierThreads() throws Exception {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("create table request_log (response_status integer not null, timestamp timestamp(6), "
+                + "id varchar(255) not null, operation_name varchar(255), request_body TEXT, response_body TEXT, "
+                + "service_name varchar(255), primary key (id))");
+        RequestLogWriter writer = new RequestLogWriter(jdbcTemplate, new SimpleMeterRegistry(), 8, 4, 1,
+                RequestLogWriter.OverflowPolicy.BLOCK, 2, 200, 0, RequestLogWriter.BodyOverflow.TRUNCATE);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        ServiceOperationRepository operations = mock(ServiceOperationRepository.class);
+        MockRuleRepository rules = mock(MockRuleRepository.class);
+        MockConfigurationRepository configs = mock(MockConfigurationRepository.class);
+
+        ServiceDefinition service = new ServiceDefinition();
+        service.setId("service-1");
+        service.setName("Employee Service");
+        ServiceOperation op = new ServiceOperation();
+        op.setId("op-1");
+        op.setName("Get Employee");
+        op.setMethod("GET");
+        op.setUrl("/api/employee/${employeeId}");
+        op.setOutputParametersJson("[{\"name\":\"id\",\"type\":\"string\"}]");
+        op.setServiceDefinition(service);
+        MockRule rule = new MockRule();
+        rule.setId("rule-1");
+        rule.setServiceOperation(op);
+        rule.setConditions("{\"employeeId\":\"7\"}");
+        rule.setResponseStatus(404);
+        rule.setResponseBody("{\"error\":\"not found\"}");
+
+        when(operations.findAllForCatalog()).thenReturn(List.of(op));
+        when(rules.findAllByOrderByPriorityAsc()).thenReturn(List.of(rule));
+        MockCatalogService catalog = new MockCatalogService(operations, rules, configs, objectMapper);
+        catalog.refresh();
+        MockExecutionService mockExecutionService = new MockExecutionService(operations, rules, writer,
+                new RandomDataGenerator(), objectMapper, catalog, new MockMetrics(new SimpleMeterRegistry(), true, 100),
+                new ResponseCache(new SimpleMeterRegistry(), false, 0, java.time.Duration.ZERO));
+
+        List<RecordedEvent> pinned = new CopyOnWriteArrayList<>();
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", pinned::add);
+            recording.startAsync();
+
+            writer.start();
+            List<Future<ResponseEntity<Object>>> responses;
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                responses = executor.invokeAll(IntStream.range(0, 500)
+                        .mapToObj(i -> (Callable<ResponseEntity<Object>>) () -> mockExecutionService
+                                .executeMock("GET", "/api/employee/" + (i % 10), null, Map.of()))
+                        .toList());
+            }
+            writer.stop();
+            recording.stop();
+
+            int notFound = 0;
+            for (Future<ResponseEntity<Object>> response : responses) {
+                if (response.get().getStatusCode().value() == 404) {
+                    notFound++;
+                }
+            }
+            assertEquals(50, notFound);
+        }
+
+        assertTrue(pinned.isEmpty(), () -> "Carrier pinned:\n" + pinned.get(0));
+    }
+}
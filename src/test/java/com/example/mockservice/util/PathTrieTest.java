@@ -0,0 +1,88 @@
+package com.example.mockservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathTrieTest {
+
+    @Test
+    void testExactPathMatch() {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.insert("/api/employee", "list");
+
+        PathTrie.Match<String> match = trie.find("/api/employee");
+        assertNotNull(match);
+        assertEquals("list", match.getRoutes().get(0).getValue());
+        assertTrue(match.variables(match.getRoutes().get(0)).isEmpty());
+    }
+
+    @Test
+    void testMultiplePathVariables() {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.insert("/api/department/${deptId}/employee/${employeeId}", "op");
+
+        PathTrie.Match<String> match = trie.find("/api/department/HR/employee/456?expand=true");
+        assertNotNull(match);
+        PathVariables vars = match.variables(match.getRoutes().get(0));
+        assertEquals(2, vars.size());
+        assertEquals("HR", vars.get("deptId"));
+        assertEquals("456", vars.get("employeeId"));
+    }
+
+    @Test
+    void testLiteralPreferredOverVariable() {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.insert("/api/employee/${employeeId}", "variable");
+        trie.insert("/api/employee/special", "exact");
+
+        assertEquals("exact", trie.find("/api/employee/special").getRoutes().get(0).getValue());
+        assertEquals("variable", trie.find("/api/employee/123").getRoutes().get(0).getValue());
+    }
+
+    @Test
+    void testBacktracksWhenLiteralBranchDeadEnds() {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.insert("/api/special/details", "literal");
+        trie.insert("/api/${id}/summary", "variable");
+
+        PathTrie.Match<String> match = trie.find("/api/special/summary");
+        assertNotNull(match);
+        assertEquals("variable", match.getRoutes().get(0).getValue());
+        assertEquals("special", match.variables(match.getRoutes().get(0)).get("id"));
+    }
+
+    @Test
+    void testSameShapeTemplatesShareLeafWithOwnNames() {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.insert("/api/employee/${employeeId}", "first");
+        trie.insert("/api/employee/${id}", "second");
+
+        PathTrie.Match<String> match = trie.find("/api/employee/7");
+        assertEquals(2, match.getRoutes().size());
+        assertEquals("7", match.variables(match.getRoutes().get(0)).get("employeeId"));
+        assertEquals("7", match.variables(match.getRoutes().get(1)).get("id"));
+    }
+
+    @Test
+    void testPartialSegmentVariable() {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.insert("/files/report-${year}.json", "report");
+
+        PathTrie.Match<String> match = trie.find("/files/report-2024.json");
+        assertNotNull(match);
+        assertEquals("2024", match.variables(match.getRoutes().get(0)).get("year"));
+        assertNull(trie.find("/files/summary-2024.json"));
+    }
+
+    @Test
+    void testNoMatch() {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.insert("/api/employee/${employeeId}", "op");
+
+        assertNull(trie.find("/api/employee/123/details"));
+        assertNull(trie.find("/api/employee/"));
+        assertNull(trie.find("/api/department/123"));
+        assertNull(trie.find(null));
+    }
+}
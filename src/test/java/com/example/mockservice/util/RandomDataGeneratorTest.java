@@ -1,8 +1,13 @@
 package com.example.mockservice.util;
 
 import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class RandomDataGeneratorTest {
@@ -20,4 +25,72 @@ class RandomDataGeneratorTest {
         assertTrue(result.has("active"));
         assertTrue(result.get("active").isBoolean());
     }
+
+    @Test
+    void generate_WritesEveryFieldFromCompiledSchema() throws Exception {
+        OutputSchema schema = generator.compile("[{\"name\":\"id\"},{\"name\":\"age\",\"type\":\"INTEGER\"},"
+                + "{\"name\":\"since\",\"type\":\"date\"},{\"name\":\"other\",\"type\":\"json\"}]");
+
+        JsonNode result = new ObjectMapper().readTree(generator.generate(schema));
+
+        assertEquals(4, result.size());
+        assertTrue(result.get("id").asString().matches("[A-Za-z]+-\\d+"));
+        assertTrue(result.get("age").isInt());
+        assertEquals(LocalDate.now().toString(), result.get("since").asString());
+        assertEquals("mock-value", result.get("other").asString());
+    }
+
+    @Test
+    void compile_KeepsObjectNodeSemanticsForEdgeCases() {
+        assertEquals("{}", new String(generator.generate(generator.compile(null))));
+        assertEquals("{}", new String(generator.generate(generator.compile("{\"name\":\"x\"}"))));
+        assertEquals("{\"error\":\"Failed to generate data\"}",
+                new String(generator.generate(generator.compile("[{\"type\":\"string\"}]"))));
+
+        // A repeated name is written once, at its first position, with its last type
+        JsonNode repeated = generator.generateReflectedOutput(
+                "[{\"name\":\"a\",\"type\":\"integer\"},{\"name\":\"b\"},{\"name\":\"a\",\"type\":\"boolean\"}]");
+        assertEquals(2, repeated.size());
+        assertEquals("a", repeated.propertyNames().iterator().next());
+        assertTrue(repeated.get("a").isBoolean());
+    }
+
+    @Test
+    void seeded_OutputIsPureFunctionOfSeedAndRequest() {
+        String params = "[{\"name\":\"id\"},{\"name\":\"age\",\"type\":\"integer\"},{\"name\":\"since\",\"type\":\"date\"}]";
+        RandomDataGenerator first = new RandomDataGenerator(RandomDataGenerator.Mode.SEEDED, 42L);
+        RandomDataGenerator second = new RandomDataGenerator(RandomDataGenerator.Mode.SEEDED, 42L);
+        RandomDataGenerator otherSeed = new RandomDataGenerator(RandomDataGenerator.Mode.SEEDED, 7L);
+        PathVariables employee1 = new PathVariables(new String[] { "employeeId" }, new String[] { "1" });
+        PathVariables employee2 = new PathVariables(new String[] { "employeeId" }, new String[] { "2" });
+        Map<String, String[]> query = new LinkedHashMap<>();
+        query.put("b", new String[] { "2" });
+        query.put("a", new String[] { "1" });
+        Map<String, String[]> reordered = new LinkedHashMap<>();
+        reordered.put("a", new String[] { "1" });
+        reordered.put("b", new String[] { "2" });
+
+        long seed = first.requestSeed("employees", "getEmployee", employee1, query);
+        assertEquals(seed, second.requestSeed("employees", "getEmployee", employee1, reordered));
+        assertNotEquals(seed, first.requestSeed("employees", "getEmployee", employee2, query));
+        assertNotEquals(seed, otherSeed.requestSeed("employees", "getEmployee", employee1, query));
+
+        String body = new String(first.generate(first.compile(params), seed));
+        assertEquals(body, new String(second.generate(second.compile(params), seed)));
+        assertEquals(first.generateReflectedOutput(params, "employees/getEmployee"),
+                second.generateReflectedOutput(params, "employees/getEmployee"));
+    }
+
+    @Test
+    void seeded_AddingFieldKeepsOtherValues() {
+        RandomDataGenerator seeded = new RandomDataGenerator(RandomDataGenerator.Mode.SEEDED, 1L);
+
+        JsonNode before = seeded.generateReflectedOutput("[{\"name\":\"id\"},{\"name\":\"age\",\"type\":\"integer\"}]",
+                "svc/op");
+        JsonNode after = seeded.generateReflectedOutput(
+                "[{\"name\":\"extra\"},{\"name\":\"id\"},{\"name\":\"age\",\"type\":\"integer\"}]", "svc/op");
+
+        assertEquals(before.get("id"), after.get("id"));
+        assertEquals(before.get("age"), after.get("age"));
+    }
 }